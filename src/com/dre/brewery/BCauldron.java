@@ -3,10 +3,10 @@ package com.dre.brewery;
 import com.dre.brewery.api.events.IngedientAddEvent;
 import com.dre.brewery.filedata.BConfig;
 import com.dre.brewery.recipe.BCauldronRecipe;
+import com.dre.brewery.recipe.ParticleGradient;
 import com.dre.brewery.recipe.RecipeItem;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.LegacyUtil;
-import com.dre.brewery.utility.Tuple;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
@@ -27,14 +27,23 @@ public class BCauldron {
 	public static final int PARTICLEPAUSE = 15;
 	public static Random particleRandom = new Random();
 	private static Set<UUID> plInteracted = new HashSet<>(); // Interact Event helper
-	public static Map<Block, BCauldron> bcauldrons = new HashMap<>(); // All active cauldrons. Mapped to their block for fast retrieve
+	private static final Map<UUID, Map<Block, BCauldron>> byWorld = new HashMap<>(); // All active cauldrons per World. Mapped to their block for fast retrieve
+	private static volatile int cachedCount; // Number of Cauldrons, updated on the main thread for reading from other threads
+
+	/**
+	 * All active Cauldrons, mapped to their Block.
+	 *
+	 * @deprecated Cauldrons are kept per World now. Use get(), register(), remove() and getAll(World) instead.
+	 * <p>This is a live view of the Cauldrons in all Worlds, main thread only
+	 */
+	@Deprecated
+	public static final Map<Block, BCauldron> bcauldrons = new AllCauldrons();
 
 	private BIngredients ingredients = new BIngredients();
 	private final Block block;
 	private int state = 0;
 	private boolean changed = false; // Not really needed anymore
 	private Optional<BCauldronRecipe> particleRecipe; // null if we haven't checked, empty if there is none
-	private Color particleColor;
 	private Location particleLocation;
 
 	public BCauldron(Block block) {
@@ -81,7 +90,6 @@ public class BCauldron {
 			ingredients = ingredients.copy();
 			changed = false;
 		}
-		particleColor = null;
 	}
 
 	// add an ingredient to the cauldron
@@ -93,7 +101,6 @@ public class BCauldron {
 		}
 
 		particleRecipe = null;
-		particleColor = null;
 		ingredients.add(ingredient, rItem);
 		block.getWorld().playEffect(block.getLocation(), Effect.EXTINGUISH, 0);
 		if (state > 0) {
@@ -123,7 +130,67 @@ public class BCauldron {
 	// get cauldron by Block
 	@Nullable
 	public static BCauldron get(Block block) {
-		return bcauldrons.get(block);
+		Map<Block, BCauldron> inWorld = byWorld.get(block.getWorld().getUID());
+		if (inWorld == null) {
+			return null;
+		}
+		return inWorld.get(block);
+	}
+
+	/**
+	 * Add a Cauldron to the Cauldrons of its World
+	 */
+	public static void register(BCauldron cauldron) {
+		byWorld.computeIfAbsent(cauldron.block.getWorld().getUID(), k -> new HashMap<>()).put(cauldron.block, cauldron);
+	}
+
+	/**
+	 * Add loaded Cauldrons to the Cauldrons of their World
+	 */
+	public static void registerAll(Collection<BCauldron> loaded) {
+		for (BCauldron cauldron : loaded) {
+			register(cauldron);
+		}
+	}
+
+	/**
+	 * Get all Cauldrons in this World
+	 */
+	public static Collection<BCauldron> getAll(World world) {
+		Map<Block, BCauldron> inWorld = byWorld.get(world.getUID());
+		if (inWorld == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableCollection(inWorld.values());
+	}
+
+	/**
+	 * The number of Cauldrons in all Worlds
+	 */
+	public static int count() {
+		int count = 0;
+		for (Map<Block, BCauldron> inWorld : byWorld.values()) {
+			count += inWorld.size();
+		}
+		return count;
+	}
+
+	/**
+	 * The number of Cauldrons in all Worlds at the last update, can be called from any thread
+	 */
+	public static int getCachedCount() {
+		return cachedCount;
+	}
+
+	/**
+	 * Updates all Cauldrons, removing those that are no longer valid
+	 */
+	public static void updateAll() {
+		for (Map<Block, BCauldron> inWorld : byWorld.values()) {
+			inWorld.values().removeIf(cauldron -> !cauldron.onUpdate());
+		}
+		byWorld.values().removeIf(Map::isEmpty);
+		cachedCount = count();
 	}
 
 	// get cauldron from block and add given ingredient
@@ -145,7 +212,7 @@ public class BCauldron {
 			BCauldron bcauldron = get(block);
 			if (bcauldron == null) {
 				bcauldron = new BCauldron(block);
-				BCauldron.bcauldrons.put(block, bcauldron);
+				register(bcauldron);
 			}
 
 			IngedientAddEvent event = new IngedientAddEvent(player, block, bcauldron, ingredient.clone(), rItem);
@@ -173,12 +240,12 @@ public class BCauldron {
 		if (Brewery.getInstance().use1_13) {
 			BlockData data = block.getBlockData();
 			if (!(data instanceof Levelled)) {
-				bcauldrons.remove(block);
+				remove(block);
 				return false;
 			}
 			Levelled cauldron = ((Levelled) data);
 			if (cauldron.getLevel() <= 0) {
-				bcauldrons.remove(block);
+				remove(block);
 				return false;
 			}
 
@@ -186,7 +253,7 @@ public class BCauldron {
 			if (LegacyUtil.WATER_CAULDRON != null && cauldron.getLevel() == 1) {
 				// Empty Cauldron
 				block.setType(Material.CAULDRON);
-				bcauldrons.remove(block);
+				remove(block);
 			} else {
 				cauldron.setLevel(cauldron.getLevel() - 1);
 
@@ -196,7 +263,7 @@ public class BCauldron {
 				block.setBlockData(data);
 
 				if (cauldron.getLevel() <= 0) {
-					bcauldrons.remove(block);
+					remove(block);
 				} else {
 					changed = true;
 				}
@@ -208,14 +275,14 @@ public class BCauldron {
 			if (data > 3) {
 				data = 3;
 			} else if (data <= 0) {
-				bcauldrons.remove(block);
+				remove(block);
 				return false;
 			}
 			data -= 1;
 			LegacyUtil.setData(block, data);
 
 			if (data == 0) {
-				bcauldrons.remove(block);
+				remove(block);
 			} else {
 				changed = true;
 			}
@@ -297,82 +364,29 @@ public class BCauldron {
 	@NotNull
 	public Color getParticleColor() {
 		if (state < 1) {
-			return Color.fromRGB(153, 221, 255); // Bright Blue
-		}
-		if (particleColor != null) {
-			return particleColor;
+			return ParticleGradient.START;
 		}
 		if (particleRecipe == null) {
 			// Check for Cauldron Recipe
 			particleRecipe = Optional.ofNullable(ingredients.getCauldronRecipe());
 		}
-
-		List<Tuple<Integer, Color>> colorList = null;
-		if (particleRecipe.isPresent()) {
-			colorList = particleRecipe.get().getParticleColor();
-		}
-
-		if (colorList == null || colorList.isEmpty()) {
-			// No color List configured, or no recipe found
-			colorList = new ArrayList<>(1);
-			colorList.add(new Tuple<>(10, Color.fromRGB(77, 166, 255))); // Dark Aqua kind of Blue
-		}
-		int index = 0;
-		while (index < colorList.size() - 1 && colorList.get(index).a() < state) {
-			// Find the first index where the colorList Minute is higher than the state
-			index++;
-		}
-
-		int minute = colorList.get(index).a();
-		if (minute > state) {
-			// going towards the minute
-			int prevPos;
-			Color prevColor;
-			if (index > 0) {
-				// has previous colours
-				prevPos = colorList.get(index - 1).a();
-				prevColor = colorList.get(index - 1).b();
-			} else {
-				prevPos = 0;
-				prevColor = Color.fromRGB(153, 221, 255); // Bright Blue
-			}
-
-			particleColor = BUtil.weightedMixColor(prevColor, prevPos, state, colorList.get(index).b(), minute);
-		} else if (minute == state) {
-			// reached the minute
-			particleColor = colorList.get(index).b();
-		} else {
-			// passed the last minute configured
-			if (index > 0) {
-				// We have more than one color, just use the last one
-				particleColor = colorList.get(index).b();
-			} else {
-				// Only have one color, go towards a Gray
-				Color nextColor = Color.fromRGB(138, 153, 168); // Dark Teal, Gray
-				int nextPos = (int) (minute * 2.6f);
-
-				if (nextPos <= state) {
-					// We are past the next color (Gray) as well, keep using it
-					particleColor = nextColor;
-				} else {
-					particleColor = BUtil.weightedMixColor(colorList.get(index).b(), minute, state, nextColor, nextPos);
-				}
-			}
-		}
-		//Brewery.getInstance().log("RGB: " + particleColor.getRed() + "|" + particleColor.getGreen() + "|" + particleColor.getBlue());
-		return particleColor;
+		// Precalculated for each minute by the Recipe
+		ParticleGradient gradient = particleRecipe.isPresent() ? particleRecipe.get().getParticleGradient() : ParticleGradient.DEFAULT;
+		return gradient.getColor(state);
 	}
 
 	public static void processCookEffects() {
 		if (!BConfig.enableCauldronParticles) return;
-		if (bcauldrons.isEmpty()) {
+		if (byWorld.isEmpty()) {
 			return;
 		}
 		final float chance = 1f / PARTICLEPAUSE;
 
-		for (BCauldron cauldron : bcauldrons.values()) {
-			if (particleRandom.nextFloat() < chance) {
-				cauldron.cookEffect();
+		for (Map<Block, BCauldron> inWorld : byWorld.values()) {
+			for (BCauldron cauldron : inWorld.values()) {
+				if (particleRandom.nextFloat() < chance) {
+					cauldron.cookEffect();
+				}
 			}
 		}
 	}
@@ -488,12 +502,13 @@ public class BCauldron {
 	 * Recalculate the Cauldron Particle Recipe
 	 */
 	public static void reload() {
-		for (BCauldron cauldron : bcauldrons.values()) {
-			cauldron.particleRecipe = null;
-			cauldron.particleColor = null;
-			if (BConfig.enableCauldronParticles) {
-				if (BUtil.isChunkLoaded(cauldron.block) && LegacyUtil.isCauldronHeatsource(cauldron.block.getRelative(BlockFace.DOWN))) {
-					cauldron.getParticleColor();
+		for (Map<Block, BCauldron> inWorld : byWorld.values()) {
+			for (BCauldron cauldron : inWorld.values()) {
+				cauldron.particleRecipe = null;
+				if (BConfig.enableCauldronParticles) {
+					if (BUtil.isChunkLoaded(cauldron.block) && LegacyUtil.isCauldronHeatsource(cauldron.block.getRelative(BlockFace.DOWN))) {
+						cauldron.getParticleColor();
+					}
 				}
 			}
 		}
@@ -503,36 +518,44 @@ public class BCauldron {
 	 * reset to normal cauldron
  	 */
 	public static boolean remove(Block block) {
-		return bcauldrons.remove(block) != null;
+		UUID worldId = block.getWorld().getUID();
+		Map<Block, BCauldron> inWorld = byWorld.get(worldId);
+		if (inWorld == null || inWorld.remove(block) == null) {
+			return false;
+		}
+		if (inWorld.isEmpty()) {
+			byWorld.remove(worldId);
+		}
+		return true;
 	}
 
 	/**
 	 * Are any Cauldrons in that World
 	 */
 	public static boolean hasDataInWorld(World world) {
-		return bcauldrons.keySet().stream().anyMatch(block -> block.getWorld().equals(world));
+		Map<Block, BCauldron> inWorld = byWorld.get(world.getUID());
+		return inWorld != null && !inWorld.isEmpty();
 	}
 
 	// unloads cauldrons that are in a unloading world
 	// as they were written to file just before, this is safe to do
 	public static void onUnload(World world) {
-		bcauldrons.keySet().removeIf(block -> block.getWorld().equals(world));
+		byWorld.remove(world.getUID());
 	}
 
 	/**
 	 * Unload all Cauldrons that have are in a unloaded World
 	 */
 	public static void unloadWorlds() {
-		List<World> worlds = Brewery.getInstance().getServer().getWorlds();
-		bcauldrons.keySet().removeIf(block -> !worlds.contains(block.getWorld()));
+		byWorld.keySet().removeIf(uuid -> Brewery.getInstance().getServer().getWorld(uuid) == null);
 	}
 
 	public static void save(ConfigurationSection config, ConfigurationSection oldData) {
 		BUtil.createWorldSections(config);
 
-		if (!bcauldrons.isEmpty()) {
-			int id = 0;
-			for (BCauldron cauldron : bcauldrons.values()) {
+		int id = 0;
+		for (Map<Block, BCauldron> inWorld : byWorld.values()) {
+			for (BCauldron cauldron : inWorld.values()) {
 				String worldName = cauldron.block.getWorld().getName();
 				String prefix;
 
@@ -566,4 +589,66 @@ public class BCauldron {
 		Brewery.getInstance().getServer().getScheduler().runTaskLater(Brewery.getInstance(), () -> player.getInventory().addItem(item), 1L);
 	}
 
+
+	/**
+	 * Map view of the Cauldrons of all Worlds, for the deprecated bcauldrons
+	 */
+	private static class AllCauldrons extends AbstractMap<Block, BCauldron> {
+
+		@Override
+		public BCauldron get(Object key) {
+			return key instanceof Block ? BCauldron.get((Block) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public BCauldron put(Block key, BCauldron value) {
+			return byWorld.computeIfAbsent(key.getWorld().getUID(), k -> new HashMap<>()).put(key, value);
+		}
+
+		@Override
+		public BCauldron remove(Object key) {
+			BCauldron cauldron = get(key);
+			if (cauldron != null) {
+				BCauldron.remove((Block) key);
+			}
+			return cauldron;
+		}
+
+		@Override
+		public int size() {
+			return count();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return byWorld.isEmpty();
+		}
+
+		@Override
+		public void clear() {
+			byWorld.clear();
+		}
+
+		@NotNull
+		@Override
+		public Set<Entry<Block, BCauldron>> entrySet() {
+			return new AbstractSet<Entry<Block, BCauldron>>() {
+				@NotNull
+				@Override
+				public Iterator<Entry<Block, BCauldron>> iterator() {
+					return byWorld.values().stream().flatMap(inWorld -> inWorld.entrySet().stream()).iterator();
+				}
+
+				@Override
+				public int size() {
+					return count();
+				}
+			};
+		}
+	}
 }
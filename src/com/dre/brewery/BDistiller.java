@@ -1,6 +1,7 @@
 package com.dre.brewery;
 
 import com.dre.brewery.lore.BrewLore;
+import com.dre.brewery.utility.DebugCategory;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -191,10 +192,10 @@ public class BDistiller {
 					if (!runDistill(stand.getInventory(), contents)) {
 						this.cancel();
 						trackedDistillers.remove(standBlock);
-						Brewery.getInstance().debugLog("All done distilling");
+						Brewery.getInstance().debugLog(DebugCategory.DISTILLERS, () -> "All done distilling");
 					} else {
 						brewTime = -1; // go again.
-						Brewery.getInstance().debugLog("Can distill more! Continuing.");
+						Brewery.getInstance().debugLog(DebugCategory.DISTILLERS, () -> "Can distill more! Continuing.");
 					}
 				} else {
 					stand.update();
@@ -202,7 +203,7 @@ public class BDistiller {
 			} else {
 				this.cancel();
 				trackedDistillers.remove(standBlock);
-				Brewery.getInstance().debugLog("The block was replaced; not a brewing stand.");
+				Brewery.getInstance().debugLog(DebugCategory.DISTILLERS, () -> "The block was replaced; not a brewing stand.");
 			}
 		}
 
@@ -236,12 +237,12 @@ public class BDistiller {
 					this.cancel();
 					trackedDistillers.remove(standBlock);
 					showAlc(inventory, contents);
-					Brewery.getInstance().debugLog("nothing to distill");
+					Brewery.getInstance().debugLog(DebugCategory.DISTILLERS, () -> "nothing to distill");
 					return false;
 				default:
 					runTime = getLongestDistillTime(contents);
 					brewTime = runTime;
-					Brewery.getInstance().debugLog("using brewtime: " + runTime);
+					Brewery.getInstance().debugLog(DebugCategory.DISTILLERS, () -> "using brewtime: " + runTime);
 
 			}
 			return true;
@@ -1,9 +1,12 @@
 package com.dre.brewery;
 
 import com.dre.brewery.api.events.brew.BrewModifyEvent;
-import com.dre.brewery.lore.Base91EncoderStream;
+import com.dre.brewery.filedata.BConfig;
+import com.dre.brewery.lore.basE91;
 import com.dre.brewery.lore.BrewLore;
 import com.dre.brewery.recipe.*;
+import com.dre.brewery.utility.BUtil;
+import com.dre.brewery.utility.DebugCategory;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.inventory.ItemStack;
@@ -14,8 +17,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
 import java.util.logging.Level;
 
 /**
@@ -27,6 +33,10 @@ public class BIngredients {
 	private int id; // Legacy
 	private List<Ingredient> ingredients = new ArrayList<>();
 	private int cookedTime;
+	// The CauldronRecipes these ingredients could match, only changes when a new ingredient is added
+	private List<BCauldronRecipe> cauldronCandidates;
+	private int candidatesChangeCount;
+	private int candidatesSize;
 
 	/**
 	 * Init a new BIngredients
@@ -64,16 +74,19 @@ public class BIngredients {
 	 * @param ingredient the item to add
 	 */
 	public void add(ItemStack ingredient) {
+		// Name and lore are only prepared once for all matches
+		MatchedItem matched = new MatchedItem(ingredient);
 		for (Ingredient existing : ingredients) {
-			if (existing.matches(ingredient)) {
+			if (existing.matches(matched)) {
 				existing.setAmount(existing.getAmount() + 1);
 				return;
 			}
 		}
 
-		Ingredient ing = RecipeItem.getMatchingRecipeItem(ingredient, true).toIngredient(ingredient);
+		Ingredient ing = RecipeItem.getMatchingRecipeItem(matched, true).toIngredient(ingredient);
 		ing.setAmount(1);
 		ingredients.add(ing);
+		cauldronCandidates = null;
 	}
 
 	/**
@@ -92,6 +105,7 @@ public class BIngredients {
 		}
 		ingredientItem.setAmount(1);
 		ingredients.add(ingredientItem);
+		cauldronCandidates = null;
 	}
 
 	/**
@@ -115,7 +129,7 @@ public class BIngredients {
 			// Potion is best with cooking only
 			int quality = (int) Math.round((getIngredientQuality(cookRecipe) + getCookingQuality(cookRecipe, false)) / 2.0);
 			int alc = (int) Math.round(cookRecipe.getAlcohol() * ((float) quality / 10.0f));
-			Brewery.getInstance().debugLog("cooked potion has Quality: " + quality + ", Alc: " + alc);
+			Brewery.getInstance().debugLog(DebugCategory.CAULDRONS, () -> "cooked potion has Quality: " + quality + ", Alc: " + alc);
 			brew = new Brew(quality, alc, cookRecipe, this);
 			BrewLore lore = new BrewLore(brew, potionMeta);
 			lore.updateQualityStars(false);
@@ -138,7 +152,7 @@ public class BIngredients {
 			} else {
 				BCauldronRecipe cauldronRecipe = getCauldronRecipe();
 				if (cauldronRecipe != null) {
-					Brewery.getInstance().debugLog("Found Cauldron Recipe: " + cauldronRecipe.getName());
+					Brewery.getInstance().debugLog(DebugCategory.CAULDRONS, () -> "Found Cauldron Recipe: " + cauldronRecipe.getName());
 					cookedName = cauldronRecipe.getName();
 					if (cauldronRecipe.getLore() != null) {
 						BrewLore lore = new BrewLore(brew, potionMeta);
@@ -203,45 +217,77 @@ public class BIngredients {
 	 * best recipe for current state of potion, STILL not always returns the correct one...
 	 */
 	public BRecipe getBestRecipe(float wood, float time, boolean distilled) {
+		int changes = BRecipe.getChangeCount();
+		RecipeMemo.Result matched = RecipeMemo.get(ingredients, cookedTime, distilled, changes);
+		if (matched == null) {
+			matched = matchRecipes(distilled);
+			RecipeMemo.put(ingredients, cookedTime, distilled, matched, changes);
+		}
+
+		boolean debug = Brewery.getInstance().isDebugging(DebugCategory.RECIPES);
 		float quality = 0;
-		int ingredientQuality;
-		int cookingQuality;
-		int woodQuality;
-		int ageQuality;
 		BRecipe bestRecipe = null;
-		for (BRecipe recipe : BRecipe.getAllRecipes()) {
-			ingredientQuality = getIngredientQuality(recipe);
-			cookingQuality = getCookingQuality(recipe, distilled);
-
-			if (ingredientQuality > -1 && cookingQuality > -1) {
-				if (recipe.needsToAge() || time > 0.5) {
-					// needs riping in barrel
-					ageQuality = getAgeQuality(recipe, time);
-					woodQuality = getWoodQuality(recipe, wood);
-					Brewery.getInstance().debugLog("Ingredient Quality: " + ingredientQuality + " Cooking Quality: " + cookingQuality +
-						" Wood Quality: " + woodQuality + " age Quality: " + ageQuality + " for " + recipe.getName(5));
-
-					// is this recipe better than the previous best?
-					if ((((float) ingredientQuality + cookingQuality + woodQuality + ageQuality) / 4) > quality) {
-						quality = ((float) ingredientQuality + cookingQuality + woodQuality + ageQuality) / 4;
-						bestRecipe = recipe;
-					}
-				} else {
-					Brewery.getInstance().debugLog("Ingredient Quality: " + ingredientQuality + " Cooking Quality: " + cookingQuality + " for " + recipe.getName(5));
-					// calculate quality without age and barrel
-					if ((((float) ingredientQuality + cookingQuality) / 2) > quality) {
-						quality = ((float) ingredientQuality + cookingQuality) / 2;
-						bestRecipe = recipe;
-					}
-				}
+		for (int i = 0; i < matched.recipes.length; i++) {
+			float recipeQuality = getQuality(matched.recipes[i], matched.ingredientQualities[i], matched.cookingQualities[i], wood, time, debug);
+			// is this recipe better than the previous best? On a tie the earlier Recipe stays best
+			if (recipeQuality > quality) {
+				quality = recipeQuality;
+				bestRecipe = matched.recipes[i];
 			}
 		}
 		if (bestRecipe != null) {
-			Brewery.getInstance().debugLog("best recipe: " + bestRecipe.getName(5) + " has Quality= " + quality);
+			String name = bestRecipe.getName(5);
+			float bestQuality = quality;
+			Brewery.getInstance().debugLog(DebugCategory.RECIPES, () -> "best recipe: " + name + " has Quality= " + bestQuality);
 		}
 		return bestRecipe;
 	}
 
+	/**
+	 * Find the Recipes that fit the ingredients and cooking time, with their ingredient and cooking quality.
+	 * <p>Does not depend on wood and age, so the result can be remembered for all of them
+	 */
+	private RecipeMemo.Result matchRecipes(boolean distilled) {
+		List<BRecipe> candidates = BRecipe.getCandidates(ingredients);
+		int[] ingredientQualities = new int[candidates.size()];
+		int[] cookingQualities = new int[candidates.size()];
+		if (BConfig.parallelRecipeThreshold > 0 && candidates.size() > BConfig.parallelRecipeThreshold) {
+			// Each Recipe on its own, in the common ForkJoinPool. Nothing changes the ingredients while we wait for it
+			IntStream.range(0, candidates.size()).parallel().forEach(i -> {
+				ingredientQualities[i] = getIngredientQuality(candidates.get(i));
+				cookingQualities[i] = getCookingQuality(candidates.get(i), distilled);
+			});
+		} else {
+			for (int i = 0; i < candidates.size(); i++) {
+				ingredientQualities[i] = getIngredientQuality(candidates.get(i));
+				cookingQualities[i] = getCookingQuality(candidates.get(i), distilled);
+			}
+		}
+		return new RecipeMemo.Result(candidates, ingredientQualities, cookingQualities);
+	}
+
+	/**
+	 * The quality of the Recipe with the given ingredient and cooking quality, for this wood and age
+	 */
+	private float getQuality(BRecipe recipe, int ingredientQuality, int cookingQuality, float wood, float time, boolean debug) {
+		if (recipe.needsToAge() || time > 0.5) {
+			// needs riping in barrel
+			int ageQuality = getAgeQuality(recipe, time);
+			int woodQuality = getWoodQuality(recipe, wood);
+			if (debug) {
+				Brewery.getInstance().debugLog(DebugCategory.RECIPES, () -> "Ingredient Quality: " + ingredientQuality + " Cooking Quality: " + cookingQuality +
+					" Wood Quality: " + woodQuality + " age Quality: " + ageQuality + " for " + recipe.getName(5));
+			}
+			return ((float) ingredientQuality + cookingQuality + woodQuality + ageQuality) / 4;
+		} else {
+			if (debug) {
+				Brewery.getInstance().debugLog(DebugCategory.RECIPES, () -> "Ingredient Quality: " + ingredientQuality + " Cooking Quality: " + cookingQuality + " for " + recipe.getName(5));
+			}
+			// calculate quality without age and barrel
+			return ((float) ingredientQuality + cookingQuality) / 2;
+		}
+	}
+
 	/**
 	 * returns recipe that is cooking only and matches the ingredients and cooking time
 	 */
@@ -262,10 +308,17 @@ public class BIngredients {
 	 */
 	@Nullable
 	public BCauldronRecipe getCauldronRecipe() {
+		int changes = BCauldronRecipe.getChangeCount();
+		if (cauldronCandidates == null || candidatesChangeCount != changes || candidatesSize != ingredients.size()) {
+			// Only the recipes whose ingredients are all present, adding more of the same ingredients doesn't change these
+			cauldronCandidates = BCauldronRecipe.getCandidates(ingredients);
+			candidatesChangeCount = changes;
+			candidatesSize = ingredients.size();
+		}
 		BCauldronRecipe best = null;
 		float bestMatch = 0;
 		float match;
-		for (BCauldronRecipe recipe : BCauldronRecipe.getAllRecipes()) {
+		for (BCauldronRecipe recipe : cauldronCandidates) {
 			match = recipe.getIngredientMatch(ingredients);
 			if (match >= 10) {
 				return recipe;
@@ -406,6 +459,11 @@ public class BIngredients {
 				ingredients.equals(other.ingredients);
 	}
 
+	@Override
+	public int hashCode() {
+		return Objects.hash(cookedTime, ingredients);
+	}
+
 	// Creates a copy ingredients
 	public BIngredients copy() {
 		BIngredients copy = new BIngredients();
@@ -452,17 +510,22 @@ public class BIngredients {
 		}
 	}*/
 
+	/**
+	 * Save in the format of the current Brew.SAVE_VER
+	 */
 	public void save(DataOutputStream out) throws IOException {
-		out.writeInt(cookedTime);
+		BUtil.writeVarInt(out, cookedTime);
 		out.writeByte(ingredients.size());
 		for (Ingredient ing : ingredients) {
-			ing.saveTo(out);
-			out.writeShort(Math.min(ing.getAmount(), Short.MAX_VALUE));
+			ing.saveCompactTo(out);
+			BUtil.writeVarInt(out, Math.min(ing.getAmount(), Short.MAX_VALUE));
 		}
 	}
 
 	public static BIngredients load(DataInputStream in, short dataVersion) throws IOException {
-		int cookedTime = in.readInt();
+		// Since v3 in compact format
+		boolean compact = dataVersion >= 3;
+		int cookedTime = compact ? BUtil.readVarInt(in) : in.readInt();
 		byte size = in.readByte();
 		List<Ingredient> ing = new ArrayList<>(size);
 		for (; size > 0; size--) {
@@ -472,7 +535,7 @@ public class BIngredients {
 				break;
 			}
 			Ingredient loaded = Brewery.getInstance().ingredientLoaders.get(itemLoader.getSaveID()).apply(itemLoader);
-			int amount = in.readShort();
+			int amount = compact ? BUtil.readVarInt(in) : in.readShort();
 			if (loaded != null) {
 				loaded.setAmount(amount);
 				ing.add(loaded);
@@ -505,14 +568,14 @@ public class BIngredients {
 	// Serialize Ingredients to String for storing in yml, ie for Cauldrons
 	public String serializeIngredients() {
 		ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-		try (DataOutputStream out = new DataOutputStream(new Base91EncoderStream(byteStream))) {
+		try (DataOutputStream out = new DataOutputStream(byteStream)) {
 			out.writeByte(Brew.SAVE_VER);
 			save(out);
 		} catch (IOException e) {
 			Brewery.getInstance().getLogger().log(Level.SEVERE, e.getMessage(), e);
 			return "";
 		}
-		return byteStream.toString();
+		return new String(basE91.encode(byteStream.toByteArray()), StandardCharsets.US_ASCII);
 	}
 
 }
@@ -4,9 +4,17 @@ import com.dre.brewery.api.events.barrel.BarrelAccessEvent;
 import com.dre.brewery.api.events.barrel.BarrelCreateEvent;
 import com.dre.brewery.api.events.barrel.BarrelDestroyEvent;
 import com.dre.brewery.api.events.barrel.BarrelRemoveEvent;
+import com.dre.brewery.api.events.brew.BrewModifyEvent;
+import com.dre.brewery.filedata.BConfig;
+import com.dre.brewery.filedata.BData;
+import com.dre.brewery.filedata.InventoryCodec;
 import com.dre.brewery.lore.BrewLore;
+import com.dre.brewery.recipe.BRecipe;
 import com.dre.brewery.utility.BUtil;
+import com.dre.brewery.utility.BlockAreaReader;
+import com.dre.brewery.utility.BlockReader;
 import com.dre.brewery.utility.BoundingBox;
+import com.dre.brewery.utility.DebugCategory;
 import com.dre.brewery.utility.LegacyUtil;
 import org.bukkit.*;
 import org.bukkit.block.Block;
@@ -17,36 +25,64 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
 
 /**
  * A Multi Block Barrel with Inventory
  */
 public class Barrel implements InventoryHolder {
 
-	public static List<Barrel> barrels = new ArrayList<>();
-	private static int check = 0; // Which Barrel was last checked
+	private static final Map<UUID, BarrelIndex> indices = new HashMap<>(); // All Barrels, registered and spatially indexed per World
+	private static BarrelCheck runningCheck = null; // The currently running BarrelCheck
+	private static long barrelTime = 0; // Globally counted Barrel time in minutes. The difference to the timestamp of each Barrel gives its age time
+	private static volatile int cachedCount; // Number of Barrels, updated on the main thread for reading from other threads
+
+	/**
+	 * All Barrels.
+	 *
+	 * @deprecated Barrels are kept and indexed per World now. Use getAll(), register() and remove() instead.
+	 * <p>This is a live view of the Barrels in all Worlds, main thread only.
+	 * Getting by position copies all Barrels into a List again after any Barrel was added or removed
+	 */
+	@Deprecated
+	public static final List<Barrel> barrels = new AllBarrels();
 
 	private final Block spigot;
 	private final BarrelBody body; // The Blocks that make up a Barrel in the World
 	private boolean checked; // Checked by the random BarrelCheck routine
-	private Inventory inventory;
-	private float time;
+	private Inventory inventory; // Only exists while the Chunk is loaded and the Barrel has been accessed
+	private ItemStack[] storedItems; // The Contents while there is no Inventory that are not encoded yet, null if empty
+	private String storedData; // The stored Contents in compact encoding, decoded when needed. With an Inventory only those that could not be decoded
+	private float time; // The age time the Barrel had at its timestamp
+	private long timeStamp; // The global barrel time when the age time was last set
+	private float agingTime = -1; // The age time currently being applied to the brews async, -1 if none
+	private int agingRun = 0; // Incremented for every async aging, to discard results that are no longer valid
 
 	public Barrel(Block spigot, byte signoffset) {
 		this.spigot = spigot;
-		if (isLarge()) {
-			inventory = Brewery.getInstance().getServer().createInventory(this, 27, Brewery.getInstance().languageReader.get("Etc_Barrel"));
-		} else {
-			inventory = Brewery.getInstance().getServer().createInventory(this, 9, Brewery.getInstance().languageReader.get("Etc_Barrel"));
-		}
+		this.timeStamp = barrelTime;
 		body = new BarrelBody(this, signoffset);
 	}
 
@@ -63,45 +99,60 @@ public class Barrel implements InventoryHolder {
 	 *
 	 */
 	public Barrel(Block spigot, byte sign, BoundingBox bounds, Map<String, Object> items, float time, boolean async) {
+		this(spigot, sign, bounds, items, null, time, async);
+	}
+
+	/**
+	 * Load from File
+	 * <p>If async: true, The Barrel Bounds will not be recreated when missing/corrupt, getBody().getBounds() will be null if it needs recreating
+	 *
+	 * @param data The Contents in compact encoding, see InventoryCodec
+	 */
+	public Barrel(Block spigot, byte sign, BoundingBox bounds, Map<String, Object> items, @Nullable String data, float time, boolean async) {
 		this.spigot = spigot;
-		if (isLarge()) {
-			this.inventory = Brewery.getInstance().getServer().createInventory(this, 27, Brewery.getInstance().languageReader.get("Etc_Barrel"));
-		} else {
-			this.inventory = Brewery.getInstance().getServer().createInventory(this, 9, Brewery.getInstance().languageReader.get("Etc_Barrel"));
+		if (data != null && !data.isEmpty()) {
+			storedData = data;
 		}
-		if (items != null) {
-			for (String slot : items.keySet()) {
-				if (items.get(slot) instanceof ItemStack) {
-					this.inventory.setItem(Brewery.getInstance().parseInt(slot), (ItemStack) items.get(slot));
+		if (items != null && !items.isEmpty()) {
+			// Keep the items until the Inventory is needed, the Chunk may not be visited for a long time.
+			// They are encoded by encodeStored() once the Barrel is registered
+			ItemStack[] stored = new ItemStack[27];
+			int size = 0;
+			for (Map.Entry<String, Object> entry : items.entrySet()) {
+				int slot = Brewery.getInstance().parseInt(entry.getKey());
+				if (entry.getValue() instanceof ItemStack && slot >= 0 && slot < stored.length) {
+					stored[slot] = (ItemStack) entry.getValue();
+					size = Math.max(size, slot + 1);
 				}
 			}
+			if (size > 0) {
+				storedItems = Arrays.copyOf(stored, size);
+			}
 		}
 		this.time = time;
+		this.timeStamp = barrelTime;
 
 		body = new BarrelBody(this, sign, bounds, async);
 	}
 
 	public static void onUpdate() {
-		for (Barrel barrel : barrels) {
-			// Minecraft day is 20 min, so add 1/20 to the time every minute
-			barrel.time += (1.0 / 20.0);
-		}
-		int numBarrels = barrels.size();
-		if (check == 0 && numBarrels > 0) {
-			Barrel random = barrels.get((int) Math.floor(Math.random() * numBarrels));
-			if (random != null) {
+		// Minecraft day is 20 min, so every Barrel ages 1/20 day every minute
+		barrelTime++;
+		cachedCount = count();
+		if (runningCheck == null) {
+			List<Barrel> all = getAll();
+			int numBarrels = all.size();
+			if (numBarrels > 0) {
 				// You have been selected for a random search
 				// We want to check at least one barrel every time
-				random.checked = false;
-			}
-			if (numBarrels > 50) {
-				Barrel randomInTheBack = barrels.get(numBarrels - 1 - (int) (Math.random() * (numBarrels >>> 2)));
-				if (randomInTheBack != null) {
-					// Prioritize checking one of the less recently used barrels as well
-					randomInTheBack.checked = false;
+				all.get((int) Math.floor(Math.random() * numBarrels)).checked = false;
+				if (numBarrels > 50) {
+					// Check a second one on larger servers
+					all.get((int) Math.floor(Math.random() * numBarrels)).checked = false;
 				}
+				runningCheck = new BarrelCheck(all);
+				runningCheck.runTaskTimer(Brewery.getInstance(), 1, 1);
 			}
-			new BarrelCheck().runTaskTimer(Brewery.getInstance(), 1, 1);
 		}
 	}
 
@@ -139,41 +190,167 @@ public class Barrel implements InventoryHolder {
 	 * player opens the barrel
 	 */
 	public void open(Player player) {
-		if (inventory == null) {
-			if (isLarge()) {
-				inventory = Brewery.getInstance().getServer().createInventory(this, 27, Brewery.getInstance().languageReader.get("Etc_Barrel"));
-			} else {
-				inventory = Brewery.getInstance().getServer().createInventory(this, 9, Brewery.getInstance().languageReader.get("Etc_Barrel"));
-			}
-		} else {
-			if (time > 0) {
-				// if nobody has the inventory opened
-				if (inventory.getViewers().isEmpty()) {
-					// if inventory contains potions
-					if (inventory.contains(Material.POTION)) {
-						byte wood = body.getWood();
+		getInventory();
+		float time = getTime();
+		if (time > 0 && !isAging()) {
+			// if nobody has the inventory opened
+			if (inventory.getViewers().isEmpty()) {
+				// if inventory contains potions
+				if (inventory.contains(Material.POTION)) {
+					byte wood = body.getWood();
+					if (Brewery.getInstance().use1_9) {
+						ageAsync(time, wood);
+					} else {
 						long loadTime = System.nanoTime();
-						for (ItemStack item : inventory.getContents()) {
-							if (item != null) {
-								Brew brew = Brew.get(item);
-								if (brew != null) {
-									brew.age(item, time, wood);
-								}
-							}
-						}
+						Brew.ageAll(inventory.getContents(), time, wood, -1);
 						loadTime = System.nanoTime() - loadTime;
 						float ftime = (float) (loadTime / 1000000.0);
-						Brewery.getInstance().debugLog("opening Barrel with potions (" + ftime + "ms)");
+						Brewery.getInstance().debugLog(DebugCategory.BARRELS, () -> "opening Barrel with potions (" + ftime + "ms)");
 					}
 				}
 			}
 		}
 		// reset barreltime, potions have new age
-		time = 0;
+		resetTime();
 
 		player.openInventory(inventory);
 	}
 
+	/**
+	 * Age the brews in the Inventory partly off the main thread.
+	 * <p>Only the aging of the loaded Brews is done async. Reading and changing the Metas is done on the main thread,
+	 * before and after. The Inventory is locked until then, and only Items that are still the same get the aged Meta
+	 */
+	private void ageAsync(float time, byte wood) {
+		if (isAging()) {
+			return;
+		}
+		long start = System.nanoTime();
+		ItemStack[] contents = inventory.getContents();
+		ItemMeta[] metas = new ItemMeta[contents.length];
+		ItemStack[] before = new ItemStack[contents.length];
+		for (int slot = 0; slot < contents.length; slot++) {
+			ItemStack item = contents[slot];
+			if (item != null && item.getType() == Material.POTION && item.hasItemMeta()) {
+				metas[slot] = item.getItemMeta();
+				// The Contents reflect changes to the Inventory, so keep a copy to compare with
+				before[slot] = item.clone();
+			}
+		}
+		// Identical brews are only aged once
+		int[] groups = Brew.groupIdentical(metas);
+		Brew[] brews = new Brew[metas.length];
+		for (int slot = 0; slot < metas.length; slot++) {
+			ItemMeta meta = metas[slot];
+			if (meta == null || groups[slot] != slot) continue;
+			try {
+				Brew brew = Brew.load(meta);
+				if (brew == null) {
+					// Legacy Brews are converted and aged right away
+					if (meta instanceof PotionMeta && ((PotionMeta) meta).hasCustomEffect(PotionEffectType.REGENERATION)) {
+						ageLegacy(contents, groups, slot, time, wood);
+					}
+					continue;
+				}
+				if (brew.needsSave() && Brewery.getInstance().useNBT) {
+					// Brew needs saving from a previous format
+					new BrewLore(brew, (PotionMeta) meta).removeLoreData();
+				}
+				if (!brew.isImmutable() || brew.needsSave()) {
+					brews[slot] = brew;
+				}
+			} catch (Exception e) {
+				Brewery.getInstance().getLogger().log(Level.SEVERE, e.getMessage(), e);
+			}
+		}
+		final int run = ++agingRun;
+		agingTime = time;
+		BRecipe.publishChanges();
+		long copyTime = System.nanoTime() - start;
+
+		Brewery.getInstance().getServer().getScheduler().runTaskAsynchronously(Brewery.getInstance(), () -> {
+			long asyncStart = System.nanoTime();
+			BRecipe[] previous = new BRecipe[brews.length];
+			boolean[] aged = new boolean[brews.length];
+			for (int slot = 0; slot < brews.length; slot++) {
+				Brew brew = brews[slot];
+				if (brew == null || brew.isImmutable()) continue;
+				try {
+					previous[slot] = brew.ageBrew(time, wood);
+					aged[slot] = true;
+				} catch (Exception e) {
+					Brewery.getInstance().getLogger().log(Level.SEVERE, e.getMessage(), e);
+					brews[slot] = null;
+				}
+			}
+			long asyncTime = System.nanoTime() - asyncStart;
+
+			if (!Brewery.getInstance().isEnabled()) return;
+			Brewery.getInstance().getServer().getScheduler().runTask(Brewery.getInstance(), () -> {
+				if (run != agingRun) {
+					// Barrel was removed in the meantime and the brews aged there
+					return;
+				}
+				agingTime = -1;
+				if (inventory == null) {
+					return;
+				}
+				long applyStart = System.nanoTime();
+				for (int slot = 0; slot < brews.length; slot++) {
+					Brew brew = brews[slot];
+					if (brew == null) continue;
+					PotionMeta meta = (PotionMeta) metas[slot];
+					try {
+						if (aged[slot]) {
+							brew.applyAge(meta, null, previous[slot]);
+							// Call the Event once for all identical brews
+							BrewModifyEvent modifyEvent = new BrewModifyEvent(brew, meta, BrewModifyEvent.Type.AGE);
+							Brewery.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
+							if (modifyEvent.isCancelled()) {
+								continue;
+							}
+						}
+						brew.save(meta);
+					} catch (Exception e) {
+						Brewery.getInstance().getLogger().log(Level.SEVERE, e.getMessage(), e);
+						continue;
+					}
+					for (int other = slot; other < groups.length; other++) {
+						if (groups[other] != slot) continue;
+						ItemStack item = inventory.getItem(other);
+						// Only if nothing changed the Item meanwhile
+						if (item != null && item.isSimilar(before[other])) {
+							item.setItemMeta(meta);
+						}
+					}
+				}
+				long applyTime = System.nanoTime() - applyStart;
+				Brewery.getInstance().debugLog(DebugCategory.BARRELS, () -> "opening Barrel with potions (main: " + ((copyTime + applyTime) / 1000000.0)
+					+ "ms, async: " + (asyncTime / 1000000.0) + "ms)");
+			});
+		});
+	}
+
+	/**
+	 * Convert and age the legacy Brew in the slot and all identical to it
+	 */
+	private void ageLegacy(ItemStack[] contents, int[] groups, int group, float time, byte wood) {
+		for (int slot = group; slot < groups.length; slot++) {
+			if (groups[slot] != group) continue;
+			Brew brew = Brew.get(contents[slot]);
+			if (brew != null) {
+				brew.age(contents[slot], time, wood);
+			}
+		}
+	}
+
+	/**
+	 * If the brews in this Barrel are currently being aged async, the Inventory may not be changed until done
+	 */
+	public boolean isAging() {
+		return agingTime >= 0;
+	}
+
 	public void playOpeningSound() {
 		float randPitch = (float) (Math.random() * 0.1);
 		Location location = getSpigot().getLocation();
@@ -199,12 +376,103 @@ public class Barrel implements InventoryHolder {
 		}
 	}
 
+	/**
+	 * Get the Inventory of this Barrel.
+	 * <p>Creates the Inventory from the stored Contents if it does not exist yet
+	 */
 	@Override
 	@NotNull
 	public Inventory getInventory() {
+		if (inventory == null) {
+			decodeStored();
+			if (isLarge()) {
+				inventory = Brewery.getInstance().getServer().createInventory(this, 27, Brewery.getInstance().languageReader.get("Etc_Barrel"));
+			} else {
+				inventory = Brewery.getInstance().getServer().createInventory(this, 9, Brewery.getInstance().languageReader.get("Etc_Barrel"));
+			}
+			if (storedItems != null) {
+				int size = Math.min(storedItems.length, inventory.getSize());
+				for (int slot = 0; slot < size; slot++) {
+					if (storedItems[slot] != null) {
+						inventory.setItem(slot, storedItems[slot]);
+					}
+				}
+				storedItems = null;
+			}
+		}
 		return inventory;
 	}
 
+	/**
+	 * Does this Barrel currently have an Inventory, or are its Contents stored away
+	 */
+	public boolean hasInventoryLoaded() {
+		return inventory != null;
+	}
+
+	/**
+	 * Drop the Inventory and only keep its Contents, if nobody is viewing it.
+	 * <p>The Inventory will be created again when accessed
+	 */
+	public void unloadInventory() {
+		if (inventory == null || !inventory.getViewers().isEmpty() || isAging()) {
+			return;
+		}
+		ItemStack[] contents = inventory.getContents();
+		int size = 0;
+		for (int slot = 0; slot < contents.length; slot++) {
+			if (contents[slot] != null) {
+				size = slot + 1;
+			}
+		}
+		storedItems = size > 0 ? Arrays.copyOf(contents, size) : null;
+		inventory = null;
+	}
+
+	/**
+	 * Decode the Items that are still in compact encoding into the Inventory or the stored Contents.
+	 * <p>Items that can't be decoded, or have no free slot, stay encoded and are saved again as they are
+	 */
+	private void decodeStored() {
+		if (storedData == null) {
+			return;
+		}
+		if (inventory != null) {
+			ItemStack[] contents = inventory.getContents();
+			String kept = InventoryCodec.decode(storedData, contents);
+			if (!Objects.equals(kept, storedData)) {
+				inventory.setContents(contents);
+				storedData = kept;
+			}
+			return;
+		}
+		ItemStack[] stored = new ItemStack[isLarge() ? 27 : 9];
+		if (storedItems != null) {
+			System.arraycopy(storedItems, 0, stored, 0, Math.min(storedItems.length, stored.length));
+		}
+		storedData = InventoryCodec.decode(storedData, stored);
+		int size = 0;
+		for (int slot = 0; slot < stored.length; slot++) {
+			if (stored[slot] != null) {
+				size = slot + 1;
+			}
+		}
+		storedItems = size > 0 ? Arrays.copyOf(stored, size) : null;
+	}
+
+	/**
+	 * The Contents of this Barrel, from the Inventory or the stored Contents.
+	 * <p>Does not include Items that are still in compact encoding
+	 * <p>Slots may be null
+	 */
+	@NotNull
+	private ItemStack[] getContents() {
+		if (inventory != null) {
+			return inventory.getContents();
+		}
+		return storedItems != null ? storedItems : new ItemStack[0];
+	}
+
 	@NotNull
 	public Block getSpigot() {
 		return spigot;
@@ -215,8 +483,26 @@ public class Barrel implements InventoryHolder {
 		return body;
 	}
 
+	/**
+	 * The time in minecraft days the brews in this Barrel have aged since it was last opened
+	 */
 	public float getTime() {
-		return time;
+		return time + (barrelTime - timeStamp) / 20f;
+	}
+
+	/**
+	 * The age time that has not been applied to the brews yet, including a running async aging
+	 */
+	private float getUnappliedTime() {
+		return isAging() ? getTime() + agingTime : getTime();
+	}
+
+	/**
+	 * Reset the age time of this Barrel, after the brews have been aged
+	 */
+	private void resetTime() {
+		time = 0;
+		timeStamp = barrelTime;
 	}
 
 	/**
@@ -271,21 +557,16 @@ public class Barrel implements InventoryHolder {
 			signoffset = (byte) (sign.getY() - spigot.getY());
 		}
 
-		int i = 0;
-		for (Barrel barrel : barrels) {
-			if (barrel.body.isSignOfBarrel(signoffset)) {
-				if (barrel.spigot.equals(spigot)) {
-					if (barrel.body.getSignoffset() == 0 && signoffset != 0) {
-						// Barrel has no signOffset even though we clicked a sign, may be old
-						barrel.body.setSignoffset(signoffset);
-					}
-					moveMRU(i);
-					return barrel;
-				}
-			}
-			i++;
+		BarrelIndex index = indices.get(spigot.getWorld().getUID());
+		if (index == null) {
+			return null;
 		}
-		return null;
+		Barrel barrel = index.getBySpigot(spigot, signoffset);
+		if (barrel != null && barrel.body.getSignoffset() == 0 && signoffset != 0) {
+			// Barrel has no signOffset even though we clicked a sign, may be old
+			barrel.body.setSignoffset(signoffset);
+		}
+		return barrel;
 	}
 
 	/**
@@ -294,24 +575,191 @@ public class Barrel implements InventoryHolder {
 	@Nullable
 	public static Barrel getByWood(Block wood) {
 		if (LegacyUtil.isWoodPlanks(wood.getType()) || LegacyUtil.isWoodStairs(wood.getType())) {
-			int i = 0;
-			for (Barrel barrel : barrels) {
-				if (barrel.getSpigot().getWorld().equals(wood.getWorld()) && barrel.body.getBounds().contains(wood)) {
-					moveMRU(i);
-					return barrel;
-				}
-				i++;
+			BarrelIndex index = indices.get(wood.getWorld().getUID());
+			if (index != null) {
+				return index.getByBounds(wood);
 			}
 		}
 		return null;
 	}
 
-	// Move Barrel that was recently used more towards the front of the List
-	// Optimizes retrieve by Block over time
-	private static void moveMRU(int index) {
-		if (index > 0) {
-			// Swap entry at the index with the one next to it
-			barrels.set(index - 1, barrels.set(index, barrels.get(index - 1)));
+	/**
+	 * Get all Barrels that any of these Blocks are part of, for example the Blocks of an explosion.
+	 */
+	@NotNull
+	public static Set<Barrel> getHit(Collection<Block> blocks) {
+		return new LinkedHashSet<>(getHitBlocks(blocks).values());
+	}
+
+	/**
+	 * Get the Barrel for each of these Blocks that is part of a Barrel.
+	 * <p>Looks for Barrels near the area of all Blocks once, instead of for each Block on its own.
+	 * If there are none near, the Blocks do not have to be looked at at all
+	 *
+	 * @return Map of each hit Block to its Barrel, in the order of the given Blocks
+	 */
+	@NotNull
+	public static Map<Block, Barrel> getHitBlocks(Collection<Block> blocks) {
+		Map<Block, Barrel> hit = new LinkedHashMap<>();
+		if (blocks.isEmpty()) {
+			return hit;
+		}
+		World world = null;
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+		for (Block block : blocks) {
+			if (world == null) {
+				world = block.getWorld();
+			} else if (!world.equals(block.getWorld())) {
+				// Should not happen, just look up each Block
+				for (Block b : blocks) {
+					Barrel barrel = get(b);
+					if (barrel != null) {
+						hit.put(b, barrel);
+					}
+				}
+				return hit;
+			}
+			minX = Math.min(minX, block.getX());
+			minY = Math.min(minY, block.getY());
+			minZ = Math.min(minZ, block.getZ());
+			maxX = Math.max(maxX, block.getX());
+			maxY = Math.max(maxY, block.getY());
+			maxZ = Math.max(maxZ, block.getZ());
+		}
+		BarrelIndex index = indices.get(world.getUID());
+		if (index == null) {
+			return hit;
+		}
+
+		// Collect the Barrels whose Bounds or spigot (and signs around it) reach into the area
+		List<Barrel> near = new ArrayList<>();
+		for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+			for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+				List<Barrel> inChunk = index.getInChunk(cx, cz);
+				if (inChunk == null) continue;
+				for (Barrel barrel : inChunk) {
+					if (near.contains(barrel)) continue;
+					BoundingBox bounds = barrel.body.getBounds();
+					//noinspection ConstantConditions Bounds can still be null while loading async
+					boolean inArea = bounds != null
+						&& bounds.getMinX() <= maxX && bounds.getMaxX() >= minX
+						&& bounds.getMinY() <= maxY && bounds.getMaxY() >= minY
+						&& bounds.getMinZ() <= maxZ && bounds.getMaxZ() >= minZ;
+					if (!inArea) {
+						Block spigot = barrel.spigot;
+						inArea = spigot.getX() >= minX && spigot.getX() <= maxX
+							&& spigot.getY() >= minY - 2 && spigot.getY() <= maxY + 2
+							&& spigot.getZ() >= minZ && spigot.getZ() <= maxZ;
+					}
+					if (inArea) {
+						near.add(barrel);
+					}
+				}
+			}
+		}
+		if (near.isEmpty()) {
+			return hit;
+		}
+
+		for (Block block : blocks) {
+			Material type = block.getType();
+			Barrel found = null;
+			if (LegacyUtil.isFence(type) || LegacyUtil.isSign(type)) {
+				found = getBySpigot(block);
+			} else if (LegacyUtil.isWoodPlanks(type) || LegacyUtil.isWoodStairs(type)) {
+				for (Barrel barrel : near) {
+					BoundingBox bounds = barrel.body.getBounds();
+					//noinspection ConstantConditions Bounds can still be null while loading async
+					if (bounds != null && bounds.contains(block)) {
+						found = barrel;
+						break;
+					}
+				}
+			}
+			if (found != null) {
+				hit.put(block, found);
+			}
+		}
+		return hit;
+	}
+
+	/**
+	 * Add a Barrel to the Barrels of its World
+	 */
+	public static void register(Barrel barrel) {
+		indices.computeIfAbsent(barrel.spigot.getWorld().getUID(), k -> new BarrelIndex()).add(barrel);
+	}
+
+	/**
+	 * Add loaded Barrels to the Barrels of their World
+	 */
+	public static void registerAll(Collection<Barrel> loaded) {
+		for (Barrel barrel : loaded) {
+			register(barrel);
+		}
+	}
+
+	/**
+	 * Is this Barrel registered, or has it been removed/unloaded
+	 */
+	public boolean isRegistered() {
+		BarrelIndex index = indices.get(spigot.getWorld().getUID());
+		return index != null && index.contains(this);
+	}
+
+	/**
+	 * Get a new List of all Barrels in all Worlds
+	 */
+	public static List<Barrel> getAll() {
+		List<Barrel> all = new ArrayList<>(count());
+		for (BarrelIndex index : indices.values()) {
+			all.addAll(index.getBarrels());
+		}
+		return all;
+	}
+
+	/**
+	 * Get all Barrels in this World
+	 */
+	public static Collection<Barrel> getAll(World world) {
+		BarrelIndex index = indices.get(world.getUID());
+		if (index == null) {
+			return Collections.emptyList();
+		}
+		return index.getBarrels();
+	}
+
+	/**
+	 * The number of Barrels in all Worlds
+	 */
+	public static int count() {
+		int count = 0;
+		for (BarrelIndex index : indices.values()) {
+			count += index.size();
+		}
+		return count;
+	}
+
+	/**
+	 * The number of Barrels in all Worlds at the last update, can be called from any thread
+	 */
+	public static int getCachedCount() {
+		return cachedCount;
+	}
+
+	/**
+	 * The Bounds of the Barrel changed, update the Chunks it is indexed in.
+	 * <p>Off the main thread the Barrel is still being loaded and not registered yet,
+	 * register() will index it with its Bounds then
+	 */
+	static void reindex(Barrel barrel) {
+		if (!Brewery.getInstance().getServer().isPrimaryThread()) {
+			return;
+		}
+		BarrelIndex index = indices.get(barrel.spigot.getWorld().getUID());
+		if (index != null) {
+			index.update(barrel);
 		}
 	}
 
@@ -344,7 +792,7 @@ public class Barrel implements InventoryHolder {
 				BarrelCreateEvent createEvent = new BarrelCreateEvent(barrel, player);
 				Brewery.getInstance().getServer().getPluginManager().callEvent(createEvent);
 				if (!createEvent.isCancelled()) {
-					barrels.add(0, barrel);
+					register(barrel);
 					return true;
 				}
 			}
@@ -369,27 +817,57 @@ public class Barrel implements InventoryHolder {
 		// Listened to by LWCBarrel (IntegrationListener)
 		Brewery.getInstance().getServer().getPluginManager().callEvent(event);
 
-		if (inventory != null) {
-			List<HumanEntity> viewers = new ArrayList<>(inventory.getViewers());
-			// Copy List to fix ConcModExc
-			for (HumanEntity viewer : viewers) {
-				viewer.closeInventory();
+		// If the brews are still being aged async, discard that and age them here
+		float time = getUnappliedTime();
+		agingTime = -1;
+		agingRun++;
+
+		decodeStored();
+		if (storedData != null) {
+			// Rare, written right away so nothing is lost if the server stops
+			String location = spigot.getX() + "/" + spigot.getY() + "/" + spigot.getZ();
+			if (BData.saveUnrestored(spigot, storedData)) {
+				Brewery.getInstance().errorLog("Some Items in the removed Barrel at " + location + " could not be restored, they are kept in barrelRecovery.yml");
+			} else {
+				Brewery.getInstance().errorLog("Some Items in the removed Barrel at " + location + " could not be restored or written to barrelRecovery.yml: " + storedData);
+			}
+			storedData = null;
+		}
+		if (inventory != null || storedItems != null) {
+			ItemStack[] items;
+			if (inventory != null) {
+				List<HumanEntity> viewers = new ArrayList<>(inventory.getViewers());
+				// Copy List to fix ConcModExc
+				for (HumanEntity viewer : viewers) {
+					viewer.closeInventory();
+				}
+				items = inventory.getContents();
+				inventory.clear();
+			} else {
+				items = storedItems;
 			}
-			ItemStack[] items = inventory.getContents();
-			inventory.clear();
+			storedItems = null;
 			if (event.willDropItems()) {
-				byte wood = body.getWood();
-				for (ItemStack item : items) {
+				// Brew before throwing
+				Brew[] brews = Brew.ageAll(items, time, body.getWood(), -1);
+				Map<Brew, ItemMeta> converted = new IdentityHashMap<>();
+				for (int slot = 0; slot < items.length; slot++) {
+					ItemStack item = items[slot];
 					if (item != null) {
-						Brew brew = Brew.get(item);
+						Brew brew = brews[slot];
 						if (brew != null) {
-							// Brew before throwing
-							brew.age(item, time, wood);
-							PotionMeta meta = (PotionMeta) item.getItemMeta();
-							if (BrewLore.hasColorLore(meta)) {
-								BrewLore lore = new BrewLore(brew, meta);
-								lore.convertLore(false);
-								lore.write();
+							// Identical brews share their Brew, so only convert the lore once for them
+							ItemMeta meta = converted.computeIfAbsent(brew, b -> {
+								PotionMeta potionMeta = (PotionMeta) item.getItemMeta();
+								if (BrewLore.hasColorLore(potionMeta)) {
+									BrewLore lore = new BrewLore(b, potionMeta);
+									lore.convertLore(false);
+									lore.write();
+									return potionMeta;
+								}
+								return null;
+							});
+							if (meta != null) {
 								item.setItemMeta(meta);
 							}
 						}
@@ -404,7 +882,10 @@ public class Barrel implements InventoryHolder {
 			}
 		}
 
-		barrels.remove(this);
+		BarrelIndex index = indices.get(spigot.getWorld().getUID());
+		if (index != null) {
+			index.remove(this);
+		}
 	}
 
 	/**
@@ -449,22 +930,101 @@ public class Barrel implements InventoryHolder {
 	 * Are any Barrels in that World
 	 */
 	public static boolean hasDataInWorld(World world) {
-		return barrels.stream().anyMatch(barrel -> barrel.spigot.getWorld().equals(world));
+		BarrelIndex index = indices.get(world.getUID());
+		return index != null && !index.isEmpty();
+	}
+
+	/**
+	 * Drop the Inventories of the Barrels in an unloading Chunk, keeping only their Contents
+	 */
+	public static void onChunkUnload(Chunk chunk) {
+		BarrelIndex index = indices.get(chunk.getWorld().getUID());
+		if (index == null) {
+			return;
+		}
+		List<Barrel> inChunk = index.getInChunk(chunk.getX(), chunk.getZ());
+		if (inChunk != null) {
+			for (Barrel barrel : inChunk) {
+				barrel.unloadInventory();
+			}
+			encodeStored(inChunk);
+		}
+	}
+
+	/**
+	 * Encode the stored Contents of these Barrels off the main thread, so they are saved in compact encoding.
+	 * <p>The result is only used if the stored Contents were not changed or loaded into an Inventory in the meantime
+	 */
+	public static void encodeStored(Collection<Barrel> barrels) {
+		if (!Brewery.getInstance().use1_14) {
+			return;
+		}
+		List<Barrel> toEncode = new ArrayList<>();
+		List<ItemStack[]> items = new ArrayList<>();
+		List<String> data = new ArrayList<>();
+		for (Barrel barrel : barrels) {
+			if (barrel.inventory == null && barrel.storedItems != null) {
+				toEncode.add(barrel);
+				items.add(barrel.storedItems);
+				data.add(barrel.storedData);
+			}
+		}
+		if (toEncode.isEmpty()) {
+			return;
+		}
+		BRecipe.publishChanges();
+		Brewery.getInstance().getServer().getScheduler().runTaskAsynchronously(Brewery.getInstance(), () -> {
+			String[] results = new String[toEncode.size()];
+			ItemStack[][] remaining = new ItemStack[toEncode.size()][];
+			for (int i = 0; i < results.length; i++) {
+				ItemStack[] contents = items.get(i);
+				boolean[] encoded = new boolean[contents.length];
+				try {
+					results[i] = InventoryCodec.encode(contents, encoded, data.get(i));
+				} catch (RuntimeException e) {
+					// The Items may have been changed by removing the Barrel meanwhile, the result is not used then
+					Brewery.getInstance().debugLog(DebugCategory.BARRELS, () -> "Could not encode Barrel Contents: " + e.getMessage());
+					remaining[i] = null;
+					results[i] = null;
+					continue;
+				}
+				ItemStack[] rest = new ItemStack[contents.length];
+				int size = 0;
+				for (int slot = 0; slot < contents.length; slot++) {
+					if (contents[slot] != null && !encoded[slot]) {
+						rest[slot] = contents[slot];
+						size = slot + 1;
+					}
+				}
+				remaining[i] = size > 0 ? Arrays.copyOf(rest, size) : new ItemStack[0];
+			}
+
+			if (!Brewery.getInstance().isEnabled()) return;
+			Brewery.getInstance().getServer().getScheduler().runTask(Brewery.getInstance(), () -> {
+				for (int i = 0; i < results.length; i++) {
+					Barrel barrel = toEncode.get(i);
+					// Same Array and String as when encoding started, nothing has changed
+					if (remaining[i] != null && barrel.inventory == null && barrel.storedItems == items.get(i) && barrel.storedData == data.get(i)) {
+						barrel.storedData = results[i];
+						barrel.storedItems = remaining[i].length > 0 ? remaining[i] : null;
+					}
+				}
+			});
+		});
 	}
 
 	/**
 	 * unloads barrels that are in a unloading world
 	 */
 	public static void onUnload(World world) {
-		barrels.removeIf(barrel -> barrel.spigot.getWorld().equals(world));
+		indices.remove(world.getUID());
 	}
 
 	/**
 	 * Unload all Barrels that have a Block in a unloaded World
 	 */
 	public static void unloadWorlds() {
-		List<World> worlds = Brewery.getInstance().getServer().getWorlds();
-		barrels.removeIf(barrel -> !worlds.contains(barrel.spigot.getWorld()));
+		indices.keySet().removeIf(uuid -> Brewery.getInstance().getServer().getWorld(uuid) == null);
 	}
 
 	/**
@@ -473,9 +1033,9 @@ public class Barrel implements InventoryHolder {
 	public static void save(ConfigurationSection config, ConfigurationSection oldData) {
 		BUtil.createWorldSections(config);
 
-		if (!barrels.isEmpty()) {
-			int id = 0;
-			for (Barrel barrel : barrels) {
+		int id = 0;
+		for (BarrelIndex index : indices.values()) {
+			for (Barrel barrel : index.getBarrels()) {
 
 				String worldName = barrel.spigot.getWorld().getName();
 				String prefix;
@@ -492,16 +1052,28 @@ public class Barrel implements InventoryHolder {
 				// save the body data into the section as well
 				barrel.body.save(config, prefix);
 
-				if (barrel.inventory != null) {
+				// The Contents are encoded off the main thread when the Inventory is unloaded, here they are only written as they are
+				ItemStack[] contents = barrel.getContents();
+				boolean hasTime = false;
+				if (barrel.storedData != null) {
+					config.set(prefix + ".items", barrel.storedData);
+					float time = barrel.getUnappliedTime();
+					if (time != 0) {
+						config.set(prefix + ".time", time);
+					}
+					hasTime = true;
+				}
+				if (contents.length > 0) {
 					int slot = 0;
 					ItemStack item;
 					ConfigurationSection invConfig = null;
-					while (slot < barrel.inventory.getSize()) {
-						item = barrel.inventory.getItem(slot);
+					while (slot < contents.length) {
+						item = contents[slot];
 						if (item != null) {
 							if (invConfig == null) {
-								if (barrel.time != 0) {
-									config.set(prefix + ".time", barrel.time);
+								float time = barrel.getUnappliedTime();
+								if (time != 0 && !hasTime) {
+									config.set(prefix + ".time", time);
 								}
 								invConfig = config.createSection(prefix + ".inv");
 							}
@@ -527,38 +1099,221 @@ public class Barrel implements InventoryHolder {
 		}
 	}
 
+	/**
+	 * Checks the unchecked Barrels for being intact, as many per tick as fit into the configured time budget.
+	 * <p>Only the few Blocks of each Barrel are copied on the main thread, its layout is then checked off the main thread.
+	 * Only Barrels found broken are checked again and removed on the main thread.
+	 * <p>Barrels in unloaded Chunks are skipped and stay unchecked until a later run
+	 */
 	public static class BarrelCheck extends BukkitRunnable {
+		private final List<Barrel> barrels;
+		private int check = 0; // Which Barrel is checked next
+		private int pending = 0; // Batches being checked async
+		private int numChecked = 0;
+		private int numSkipped = 0;
+		private int numRemoved = 0;
+		private int ticks = 0;
+		private long checkTime = 0; // Time spent on the main thread, in nanoseconds
+
+		public BarrelCheck(List<Barrel> barrels) {
+			this.barrels = barrels;
+		}
+
 		@Override
 		public void run() {
-			boolean repeat = true;
-			while (repeat) {
-				if (check < barrels.size()) {
-					Barrel barrel = barrels.get(check);
-					if (!barrel.checked) {
-						Block broken = barrel.body.getBrokenBlock(false);
-						if (broken != null) {
-							Brewery.getInstance().debugLog("Barrel at "
-								+ broken.getWorld().getName() + "/" + broken.getX() + "/" + broken.getY() + "/" + broken.getZ()
-								+ " has been destroyed unexpectedly, contents will drop");
-							// remove the barrel if it was destroyed
-							barrel.remove(broken, null, true);
-						} else {
-							// Dont check this barrel again, its enough to check it once after every restart (and when randomly chosen)
-							// as now this is only the backup if we dont register the barrel breaking,
-							// for example when removing it with some world editor
-							barrel.checked = true;
-						}
-						repeat = false;
+			long start = System.nanoTime();
+			long deadline = start + (long) (BConfig.barrelCheckBudget * 1000000.0);
+			List<Barrel> batch = new ArrayList<>();
+			List<BlockReader> readers = new ArrayList<>();
+			int checkedThisTick = 0;
+			ticks++;
+			while (check < barrels.size()) {
+				Barrel barrel = barrels.get(check);
+				check++;
+				if (barrel.checked || !barrel.isRegistered()) {
+					continue;
+				}
+				if (!BUtil.isChunkLoaded(barrel.spigot)) {
+					// Cant check without loading the chunk, try again on the next run
+					numSkipped++;
+					continue;
+				}
+				BoundingBox bounds = barrel.body.getBounds();
+				// A Barrel is at most 36 Blocks, larger Bounds are wrong anyway
+				if (bounds != null && bounds.area() <= 64) {
+					Block spigot = barrel.spigot;
+					BlockReader reader = BlockAreaReader.around(spigot.getWorld(), spigot.getX(), spigot.getY(), spigot.getZ(), bounds);
+					if (reader == null) {
+						// Reaches into an unloaded Chunk
+						numSkipped++;
+						continue;
 					}
-					check++;
+					readers.add(reader);
+					batch.add(barrel);
 				} else {
-					check = 0;
-					repeat = false;
+					checkNow(barrel);
+				}
+				numChecked++;
+				checkedThisTick++;
+				// Check at least one Barrel every tick, even with a tiny budget
+				if (System.nanoTime() >= deadline) {
+					break;
+				}
+			}
+			if (!batch.isEmpty()) {
+				checkAsync(batch, readers);
+			}
+			checkTime += System.nanoTime() - start;
+
+			if (check >= barrels.size()) {
+				if (pending == 0) {
+					runningCheck = null;
 					cancel();
+					if (numChecked > 0 || numSkipped > 0) {
+						logProgress("done");
+					}
+				}
+			} else if (ticks % 100 == 0) {
+				logProgress(checkedThisTick + " in last tick");
+			}
+		}
+
+		/**
+		 * Check the copied Blocks of the Barrels off the main thread,
+		 * then apply the results on the main thread
+		 */
+		private void checkAsync(List<Barrel> batch, List<BlockReader> readers) {
+			pending++;
+			Brewery.getInstance().getServer().getScheduler().runTaskAsynchronously(Brewery.getInstance(), () -> {
+				BoundingBox[] results = new BoundingBox[batch.size()];
+				int[] broken = new int[3];
+				for (int i = 0; i < results.length; i++) {
+					Block spigot = batch.get(i).spigot;
+					try {
+						results[i] = BarrelBody.checkLayout(readers.get(i), spigot.getX(), spigot.getY(), spigot.getZ(), broken);
+					} catch (Exception e) {
+						Brewery.getInstance().errorLog("Could not check Barrel at " + spigot.getX() + "/" + spigot.getY() + "/" + spigot.getZ() + ": " + e.getMessage());
+					}
+				}
+				if (!Brewery.getInstance().isEnabled()) return;
+				Brewery.getInstance().getServer().getScheduler().runTask(Brewery.getInstance(), () -> {
+					long start = System.nanoTime();
+					pending--;
+					for (int i = 0; i < results.length; i++) {
+						Barrel barrel = batch.get(i);
+						if (!barrel.isRegistered()) {
+							continue;
+						}
+						if (results[i] != null) {
+							barrel.body.setBounds(results[i]);
+							barrel.checked = true;
+						} else if (BUtil.isChunkLoaded(barrel.spigot)) {
+							// The copies may be outdated or miss Blocks if the Bounds are wrong, confirm with the live Blocks before removing
+							checkNow(barrel);
+						}
+					}
+					checkTime += System.nanoTime() - start;
+				});
+			});
+		}
+
+		private void checkNow(Barrel barrel) {
+			Block broken = barrel.body.getBrokenBlock(true);
+			if (broken != null) {
+				Brewery.getInstance().debugLog(DebugCategory.BARRELS, () -> "Barrel at "
+					+ broken.getWorld().getName() + "/" + broken.getX() + "/" + broken.getY() + "/" + broken.getZ()
+					+ " has been destroyed unexpectedly, contents will drop");
+				// remove the barrel if it was destroyed
+				barrel.remove(broken, null, true);
+				numRemoved++;
+			} else {
+				// Dont check this barrel again, its enough to check it once after every restart (and when randomly chosen)
+				// as now this is only the backup if we dont register the barrel breaking,
+				// for example when removing it with some world editor
+				barrel.checked = true;
+			}
+		}
+
+		private void logProgress(String state) {
+			double ms = checkTime / 1000000.0;
+			Brewery.getInstance().debugLog(DebugCategory.BARRELS, () -> "BarrelCheck " + state + ": " + check + "/" + barrels.size() + " Barrels"
+				+ " | checked: " + numChecked + " | removed: " + numRemoved + " | skipped unloaded: " + numSkipped
+				+ " | " + ticks + " ticks, " + ms + "ms" + (ms > 0 ? " (" + (int) (numChecked / ms) + " per ms)" : ""));
+		}
+	}
+
+	/**
+	 * List view of the Barrels of all Worlds, for the deprecated barrels
+	 */
+	private static class AllBarrels extends AbstractList<Barrel> {
+
+		// All Barrels in one List for getting by position, rebuilt when the Worlds or their Barrels changed
+		private List<Barrel> flat = Collections.emptyList();
+		private BarrelIndex[] flatIndices = new BarrelIndex[0];
+		private int[] flatModCounts = new int[0];
+
+		@Override
+		public Barrel get(int index) {
+			if (isOutdated()) {
+				flat = getAll();
+				flatIndices = indices.values().toArray(new BarrelIndex[0]);
+				flatModCounts = new int[flatIndices.length];
+				for (int i = 0; i < flatIndices.length; i++) {
+					flatModCounts[i] = flatIndices[i].getModCount();
 				}
 			}
+			return flat.get(index);
 		}
 
+		private boolean isOutdated() {
+			if (indices.size() != flatIndices.length) {
+				return true;
+			}
+			int i = 0;
+			for (BarrelIndex inWorld : indices.values()) {
+				if (inWorld != flatIndices[i] || inWorld.getModCount() != flatModCounts[i]) {
+					return true;
+				}
+				i++;
+			}
+			return false;
+		}
+
+		@Override
+		public int size() {
+			return count();
+		}
+
+		@NotNull
+		@Override
+		public Iterator<Barrel> iterator() {
+			return indices.values().stream().flatMap(inWorld -> inWorld.getBarrels().stream()).iterator();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof Barrel && ((Barrel) o).isRegistered();
+		}
+
+		@Override
+		public boolean add(Barrel barrel) {
+			register(barrel);
+			return true;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!contains(o)) {
+				return false;
+			}
+			indices.get(((Barrel) o).spigot.getWorld().getUID()).remove((Barrel) o);
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			indices.clear();
+		}
 	}
 
 }
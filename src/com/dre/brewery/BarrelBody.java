@@ -1,12 +1,15 @@
 package com.dre.brewery;
 
 import com.dre.brewery.utility.BUtil;
+import com.dre.brewery.utility.BlockReader;
 import com.dre.brewery.utility.BoundingBox;
 import com.dre.brewery.utility.LegacyUtil;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
 
@@ -62,6 +65,7 @@ public class BarrelBody {
 	public void setBounds(@NotNull BoundingBox bounds) {
 		Objects.requireNonNull(bounds);
 		this.bounds = bounds;
+		Barrel.reindex(barrel);
 	}
 
 	public byte getSignoffset() {
@@ -92,12 +96,19 @@ public class BarrelBody {
 	 * direction of the barrel from the spigot
 	 */
 	public static int getDirection(Block spigot) {
+		return getDirection(new WorldReader(spigot.getWorld()), spigot.getX(), spigot.getY(), spigot.getZ());
+	}
+
+	/**
+	 * direction of the barrel from the spigot at x, y, z
+	 */
+	public static int getDirection(BlockReader reader, int x, int y, int z) {
 		int direction = 0;// 1=x+ 2=x- 3=z+ 4=z-
-		Material type = spigot.getRelative(0, 0, 1).getType();
+		Material type = reader.getType(x, y, z + 1);
 		if (LegacyUtil.isWoodPlanks(type) || LegacyUtil.isWoodStairs(type)) {
 			direction = 3;
 		}
-		type = spigot.getRelative(0, 0, -1).getType();
+		type = reader.getType(x, y, z - 1);
 		if (LegacyUtil.isWoodPlanks(type) || LegacyUtil.isWoodStairs(type)) {
 			if (direction == 0) {
 				direction = 4;
@@ -105,7 +116,7 @@ public class BarrelBody {
 				return 0;
 			}
 		}
-		type = spigot.getRelative(1, 0, 0).getType();
+		type = reader.getType(x + 1, y, z);
 		if (LegacyUtil.isWoodPlanks(type) || LegacyUtil.isWoodStairs(type)) {
 			if (direction == 0) {
 				direction = 1;
@@ -113,7 +124,7 @@ public class BarrelBody {
 				return 0;
 			}
 		}
-		type = spigot.getRelative(-1, 0, 0).getType();
+		type = reader.getType(x - 1, y, z);
 		if (LegacyUtil.isWoodPlanks(type) || LegacyUtil.isWoodStairs(type)) {
 			if (direction == 0) {
 				direction = 2;
@@ -261,9 +272,46 @@ public class BarrelBody {
 	}
 
 	public Block checkSBarrel() {
-		int direction = getDirection(spigot);// 1=x+ 2=x- 3=z+ 4=z-
+		int[] broken = new int[3];
+		BoundingBox checked = checkSmallLayout(new WorldReader(spigot.getWorld()), spigot.getX(), spigot.getY(), spigot.getZ(), broken);
+		if (checked == null) {
+			return spigot.getWorld().getBlockAt(broken[0], broken[1], broken[2]);
+		}
+		setBounds(checked);
+		return null;
+	}
+
+	public Block checkLBarrel() {
+		int[] broken = new int[3];
+		BoundingBox checked = checkLargeLayout(new WorldReader(spigot.getWorld()), spigot.getX(), spigot.getY(), spigot.getZ(), broken);
+		if (checked == null) {
+			return spigot.getWorld().getBlockAt(broken[0], broken[1], broken[2]);
+		}
+		setBounds(checked);
+		return null;
+	}
+
+	/**
+	 * Check the Blocks of a Barrel with its spigot at x, y, z.
+	 * <p>Only reads through the BlockReader, so can be run off the main thread on ChunkSnapshots
+	 *
+	 * @param broken Gets the location of the missing Block, if the Barrel is broken
+	 * @return The Bounds of the Barrel, null if it is broken
+	 */
+	@Nullable
+	public static BoundingBox checkLayout(BlockReader reader, int x, int y, int z, int[] broken) {
+		if (LegacyUtil.isSign(reader.getType(x, y, z))) {
+			return checkSmallLayout(reader, x, y, z, broken);
+		} else {
+			return checkLargeLayout(reader, x, y, z, broken);
+		}
+	}
+
+	@Nullable
+	public static BoundingBox checkSmallLayout(BlockReader reader, int sx, int sy, int sz, int[] broken) {
+		int direction = getDirection(reader, sx, sy, sz);// 1=x+ 2=x- 3=z+ 4=z-
 		if (direction == 0) {
-			return spigot;
+			return setBroken(broken, sx, sy, sz);
 		}
 		int startX;
 		int startZ;
@@ -293,19 +341,18 @@ public class BarrelBody {
 		while (y <= 1) {
 			while (x <= endX) {
 				while (z <= endZ) {
-					Block block = spigot.getRelative(x, y, z);
-					type = block.getType();
+					type = reader.getType(sx + x, sy + y, sz + z);
 
 					if (LegacyUtil.isWoodStairs(type)) {
 						if (y == 0) {
 							// stairs have to be upside down
-							if (!LegacyUtil.areStairsInverted(block)) {
-								return block;
+							if (!reader.areStairsInverted(sx + x, sy + y, sz + z)) {
+								return setBroken(broken, sx + x, sy + y, sz + z);
 							}
 						}
 						z++;
 					} else {
-						return spigot.getRelative(x, y, z);
+						return setBroken(broken, sx + x, sy + y, sz + z);
 					}
 				}
 				z = startZ;
@@ -315,20 +362,20 @@ public class BarrelBody {
 			x = startX;
 			y++;
 		}
-		bounds = new BoundingBox(
-			spigot.getX() + startX,
-			spigot.getY(),
-			spigot.getZ() + startZ,
-			spigot.getX() + endX,
-			spigot.getY() + 1,
-			spigot.getZ() + endZ);
-		return null;
+		return new BoundingBox(
+			sx + startX,
+			sy,
+			sz + startZ,
+			sx + endX,
+			sy + 1,
+			sz + endZ);
 	}
 
-	public Block checkLBarrel() {
-		int direction = getDirection(spigot);// 1=x+ 2=x- 3=z+ 4=z-
+	@Nullable
+	public static BoundingBox checkLargeLayout(BlockReader reader, int sx, int sy, int sz, int[] broken) {
+		int direction = getDirection(reader, sx, sy, sz);// 1=x+ 2=x- 3=z+ 4=z-
 		if (direction == 0) {
-			return spigot;
+			return setBroken(broken, sx, sy, sz);
 		}
 		int startX;
 		int startZ;
@@ -363,8 +410,6 @@ public class BarrelBody {
 		while (y <= 2) {
 			while (x <= endX) {
 				while (z <= endZ) {
-					Block block = spigot.getRelative(x, y, z);
-					type = block.getType();
 					if (direction == 1 || direction == 2) {
 						if (y == 1 && z == 0) {
 							z++;
@@ -376,10 +421,11 @@ public class BarrelBody {
 							continue;
 						}
 					}
+					type = reader.getType(sx + x, sy + y, sz + z);
 					if (LegacyUtil.isWoodPlanks(type) || LegacyUtil.isWoodStairs(type)) {
 						z++;
 					} else {
-						return block;
+						return setBroken(broken, sx + x, sy + y, sz + z);
 					}
 				}
 				z = startZ;
@@ -389,14 +435,19 @@ public class BarrelBody {
 			x = startX;
 			y++;
 		}
-		bounds = new BoundingBox(
-			spigot.getX() + startX,
-			spigot.getY(),
-			spigot.getZ() + startZ,
-			spigot.getX() + endX,
-			spigot.getY() + 2,
-			spigot.getZ() + endZ);
+		return new BoundingBox(
+			sx + startX,
+			sy,
+			sz + startZ,
+			sx + endX,
+			sy + 2,
+			sz + endZ);
+	}
 
+	private static BoundingBox setBroken(int[] broken, int x, int y, int z) {
+		broken[0] = x;
+		broken[1] = y;
+		broken[2] = z;
 		return null;
 	}
 
@@ -406,4 +457,25 @@ public class BarrelBody {
 		}
 		config.set(prefix + ".bounds", bounds.serialize());
 	}
+
+	/**
+	 * Reads the Blocks live from the World, only on the main thread
+	 */
+	private static class WorldReader implements BlockReader {
+		private final World world;
+
+		public WorldReader(World world) {
+			this.world = world;
+		}
+
+		@Override
+		public Material getType(int x, int y, int z) {
+			return world.getBlockAt(x, y, z).getType();
+		}
+
+		@Override
+		public boolean areStairsInverted(int x, int y, int z) {
+			return LegacyUtil.areStairsInverted(world.getBlockAt(x, y, z));
+		}
+	}
 }
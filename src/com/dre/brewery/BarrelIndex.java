@@ -0,0 +1,182 @@
+package com.dre.brewery;
+
+import com.dre.brewery.utility.BoundingBox;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry and Spatial Index of the Barrels in one World.
+ * <p>Lists every Barrel in each Chunk that contains its spigot or part of its Bounds,
+ * so finding the Barrel of a Block only needs to look at the Barrels of that Chunk.
+ */
+public class BarrelIndex {
+
+	private final Map<Long, List<Barrel>> chunks = new HashMap<>();
+	private final Map<Barrel, long[]> indexed = new LinkedHashMap<>(); // All Barrels of the World, with the Chunks they are currently listed in
+	private int modCount; // Incremented whenever a Barrel is added or removed
+
+	/**
+	 * Add a Barrel to the Index, or update its Chunks if it is already indexed
+	 */
+	public void add(Barrel barrel) {
+		if (indexed.containsKey(barrel)) {
+			update(barrel);
+			return;
+		}
+		long[] keys = getChunkKeys(barrel);
+		list(barrel, keys);
+		indexed.put(barrel, keys);
+		modCount++;
+	}
+
+	public void remove(Barrel barrel) {
+		long[] keys = indexed.remove(barrel);
+		if (keys != null) {
+			unlist(barrel, keys);
+			modCount++;
+		}
+	}
+
+	/**
+	 * Changes whenever a Barrel is added or removed, to tell if something built from getBarrels() is outdated
+	 */
+	int getModCount() {
+		return modCount;
+	}
+
+	/**
+	 * Relist the Barrel in the Chunks it now occupies, after its Bounds changed.
+	 * <p>Does nothing if the Barrel is not in this Index
+	 */
+	public void update(Barrel barrel) {
+		long[] keys = indexed.get(barrel);
+		if (keys == null) {
+			return;
+		}
+		long[] newKeys = getChunkKeys(barrel);
+		if (!Arrays.equals(keys, newKeys)) {
+			unlist(barrel, keys);
+			list(barrel, newKeys);
+			indexed.put(barrel, newKeys);
+		}
+	}
+
+	public boolean contains(Barrel barrel) {
+		return indexed.containsKey(barrel);
+	}
+
+	public boolean isEmpty() {
+		return indexed.isEmpty();
+	}
+
+	public int size() {
+		return indexed.size();
+	}
+
+	/**
+	 * All Barrels in this World, in the order they were added
+	 */
+	public Collection<Barrel> getBarrels() {
+		return Collections.unmodifiableSet(indexed.keySet());
+	}
+
+	/**
+	 * Get the Barrels listed in a Chunk, null if there are none
+	 */
+	@Nullable
+	public List<Barrel> getInChunk(int chunkX, int chunkZ) {
+		return chunks.get(chunkKey(chunkX, chunkZ));
+	}
+
+	/**
+	 * Get the Barrel whose spigot is this Block and that accepts this sign offset
+	 */
+	@Nullable
+	public Barrel getBySpigot(Block spigot, byte signoffset) {
+		List<Barrel> inChunk = getInChunk(spigot.getX() >> 4, spigot.getZ() >> 4);
+		if (inChunk != null) {
+			for (Barrel barrel : inChunk) {
+				if (barrel.getBody().isSignOfBarrel(signoffset) && barrel.getSpigot().equals(spigot)) {
+					return barrel;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the Barrel whose Bounds contain this Block
+	 */
+	@Nullable
+	public Barrel getByBounds(Block block) {
+		List<Barrel> inChunk = getInChunk(block.getX() >> 4, block.getZ() >> 4);
+		if (inChunk != null) {
+			for (Barrel barrel : inChunk) {
+				BoundingBox bounds = barrel.getBody().getBounds();
+				//noinspection ConstantConditions Bounds can still be null while loading async
+				if (bounds != null && bounds.contains(block)) {
+					return barrel;
+				}
+			}
+		}
+		return null;
+	}
+
+	private void list(Barrel barrel, long[] keys) {
+		for (long key : keys) {
+			chunks.computeIfAbsent(key, k -> new ArrayList<>(1)).add(barrel);
+		}
+	}
+
+	private void unlist(Barrel barrel, long[] keys) {
+		for (long key : keys) {
+			List<Barrel> inChunk = chunks.get(key);
+			if (inChunk != null) {
+				inChunk.remove(barrel);
+				if (inChunk.isEmpty()) {
+					chunks.remove(key);
+				}
+			}
+		}
+	}
+
+	public static long chunkKey(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * The Keys of all Chunks that contain the spigot or part of the Bounds of this Barrel
+	 */
+	private static long[] getChunkKeys(Barrel barrel) {
+		Block spigot = barrel.getSpigot();
+		int minX = spigot.getX() >> 4;
+		int minZ = spigot.getZ() >> 4;
+		int maxX = minX;
+		int maxZ = minZ;
+		BoundingBox bounds = barrel.getBody().getBounds();
+		//noinspection ConstantConditions Bounds can still be null while loading async
+		if (!BarrelBody.boundsSeemBad(bounds)) {
+			minX = Math.min(minX, bounds.getMinX() >> 4);
+			minZ = Math.min(minZ, bounds.getMinZ() >> 4);
+			maxX = Math.max(maxX, bounds.getMaxX() >> 4);
+			maxZ = Math.max(maxZ, bounds.getMaxZ() >> 4);
+		}
+		long[] keys = new long[(maxX - minX + 1) * (maxZ - minZ + 1)];
+		int i = 0;
+		for (int x = minX; x <= maxX; x++) {
+			for (int z = minZ; z <= maxZ; z++) {
+				keys[i++] = chunkKey(x, z);
+			}
+		}
+		return keys;
+	}
+}
@@ -8,6 +8,7 @@ import com.dre.brewery.recipe.BEffect;
 import com.dre.brewery.recipe.BRecipe;
 import com.dre.brewery.recipe.PotionColor;
 import com.dre.brewery.utility.BUtil;
+import com.dre.brewery.utility.DebugCategory;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.inventory.BrewerInventory;
@@ -31,9 +32,10 @@ import java.util.logging.Level;
  * Represents the liquid in the brewed Potions
  */
 public class Brew implements Cloneable {
-	public static final byte SAVE_VER = 1;
+	public static final byte SAVE_VER = 3;
 	private static long saveSeed;
 	private static List<Long> prevSaveSeeds = new ArrayList<>(); // Save Seeds that have been used in the past, stored to decode brews made at that time
+	private static Map<Integer, Long> seedFingerprints = Collections.emptyMap(); // All Save Seeds by their fingerprint, for brews saved since v2
 	public static Map<Integer, Brew> legacyPotions = new HashMap<>();
 	public static long installTime = System.currentTimeMillis(); // plugin install time in millis after epoch
 
@@ -137,7 +139,7 @@ public class Brew implements Cloneable {
 			// Brew needs saving from a previous format
 			if (Brewery.getInstance().useNBT) {
 				new BrewLore(brew, (PotionMeta) meta).removeLoreData();
-				Brewery.getInstance().debugLog("removed Data from Lore");
+				Brewery.getInstance().debugLog(DebugCategory.BREWS, () -> "removed Data from Lore");
 			}
 			brew.save(meta);
 			item.setItemMeta(meta);
@@ -145,6 +147,54 @@ public class Brew implements Cloneable {
 		return brew;
 	}
 
+	/**
+	 * Get the Brews of all Items at once.
+	 * <p>Identical Items are only loaded once, each Item still gets its own Brew object.
+	 * Brews saved in a previous format are converted like in get(ItemStack)
+	 *
+	 * @param items The Items to load, slots may be null
+	 * @return The Brew of each Item, null where the Item is not a Brew
+	 */
+	public static Brew[] getAll(ItemStack[] items) {
+		ItemMeta[] metas = new ItemMeta[items.length];
+		for (int i = 0; i < items.length; i++) {
+			ItemStack item = items[i];
+			if (item != null && item.getType() == Material.POTION && item.hasItemMeta()) {
+				metas[i] = item.getItemMeta();
+			}
+		}
+		int[] groups = groupIdentical(metas);
+		Brew[] brews = new Brew[items.length];
+		// Groups whose Items have to be converted, so each Item has to go through get(ItemStack)
+		boolean[] convert = new boolean[items.length];
+		boolean useNBT = Brewery.getInstance().useNBT;
+		for (int i = 0; i < items.length; i++) {
+			int group = groups[i];
+			if (group < 0) continue;
+			if (group == i) {
+				ItemMeta meta = metas[i];
+				if (!useNBT && !meta.hasLore()) continue;
+				Brew brew = load(meta);
+				if (brew == null) {
+					if (meta instanceof PotionMeta && ((PotionMeta) meta).hasCustomEffect(PotionEffectType.REGENERATION)) {
+						convert[i] = true;
+						brews[i] = get(items[i]);
+					}
+				} else if (brew.needsSave) {
+					convert[i] = true;
+					brews[i] = get(items[i]);
+				} else {
+					brews[i] = brew;
+				}
+			} else if (convert[group]) {
+				brews[i] = get(items[i]);
+			} else if (brews[group] != null) {
+				brews[i] = brews[group].clone();
+			}
+		}
+		return brews;
+	}
+
 	// Legacy Brew Loading
 	private static Brew getFromPotionEffect(PotionMeta potionMeta, boolean remove) {
 		for (PotionEffect effect : potionMeta.getCustomEffects()) {
@@ -235,24 +285,39 @@ public class Brew implements Cloneable {
 	public boolean setRecipeFromString(String name) {
 		currentRecipe = null;
 		if (name != null && !name.equals("")) {
-			for (BRecipe recipe : BRecipe.getAllRecipes()) {
-				if (recipe.getRecipeName().equalsIgnoreCase(name)) {
-					currentRecipe = recipe;
-					return true;
-				}
+			currentRecipe = BRecipe.get(name);
+			if (currentRecipe != null) {
+				return true;
 			}
+			return setRecipeInstead("'" + name + "'");
+		}
+		return false;
+	}
 
-			if (quality > 0) {
-				currentRecipe = ingredients.getBestRecipe(wood, ageTime, distillRuns > 0);
-				if (currentRecipe != null) {
-					/*if (!immutable) {
-						this.quality = calcQuality();
-					}*/
-					Brewery.getInstance().log("A Brew was made from Recipe: '" + name + "' which could not be found. '" + currentRecipe.getRecipeName() + "' used instead!");
-					return true;
-				} else {
-					Brewery.getInstance().errorLog("A Brew was made from Recipe: '" + name + "' which could not be found!");
-				}
+	/**
+	 * Set the recipe by the hash of its name, as saved since v3.
+	 * <p>Recalculates if not found, the hash is not unique or the recipe found has a different name check
+	 */
+	private boolean setRecipeFromHash(int nameHash, byte nameCheck) {
+		currentRecipe = BRecipe.getByNameHash(nameHash);
+		if (currentRecipe != null && BRecipe.nameCheck(currentRecipe.getRecipeName()) == nameCheck) {
+			return true;
+		}
+		currentRecipe = null;
+		return setRecipeInstead("#" + Integer.toHexString(nameHash));
+	}
+
+	private boolean setRecipeInstead(String missing) {
+		if (quality > 0) {
+			currentRecipe = ingredients.getBestRecipe(wood, ageTime, distillRuns > 0);
+			if (currentRecipe != null) {
+				/*if (!immutable) {
+					this.quality = calcQuality();
+				}*/
+				Brewery.getInstance().log("A Brew was made from Recipe: " + missing + " which could not be found. '" + currentRecipe.getRecipeName() + "' used instead!");
+				return true;
+			} else {
+				Brewery.getInstance().errorLog("A Brew was made from Recipe: " + missing + " which could not be found!");
 			}
 		}
 		return false;
@@ -686,8 +751,41 @@ public class Brew implements Cloneable {
 	public void age(ItemStack item, float time, byte woodType) {
 		if (immutable) return;
 		PotionMeta potionMeta = (PotionMeta) item.getItemMeta();
+		ageMeta(potionMeta, item, time, woodType);
+		BrewModifyEvent modifyEvent = new BrewModifyEvent(this, potionMeta, BrewModifyEvent.Type.AGE);
+		Brewery.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
+		if (modifyEvent.isCancelled()) {
+			// As the brew and everything connected to it is only saved on the meta from now on,
+			// not saving the brew into potionMeta is enough to not change anything in case of cancel
+			return;
+		}
+		save(potionMeta);
+		item.setItemMeta(potionMeta);
+	}
 
-		BrewLore lore = new BrewLore(this, potionMeta);
+	/**
+	 * Age the Brew and update the Name, Color and Lore on the PotionMeta.
+	 * <p>Does not save the Brew into the Meta or call the BrewModifyEvent.
+	 *
+	 * @param potionMeta The Meta to update
+	 * @param item The Item of the Meta, only needed below 1.9
+	 */
+	public void ageMeta(PotionMeta potionMeta, @Nullable ItemStack item, float time, byte woodType) {
+		if (immutable) return;
+		BRecipe previous = ageBrew(time, woodType);
+		applyAge(potionMeta, item, previous);
+	}
+
+	/**
+	 * Age only the Brew, without touching any Meta.
+	 * <p>Can be run async, as long as no other Thread uses this Brew meanwhile
+	 *
+	 * @return The Recipe the Brew had before, to pass to applyAge()
+	 */
+	@Nullable
+	BRecipe ageBrew(float time, byte woodType) {
+		BRecipe previous = currentRecipe;
+		if (immutable) return previous;
 		ageTime += time;
 
 		// if younger than half a day, it shouldnt get aged form
@@ -701,12 +799,33 @@ public class Brew implements Cloneable {
 			if (recipe != null) {
 				currentRecipe = recipe;
 				quality = calcQuality();
+			} else {
+				quality = 0;
+				currentRecipe = null;
+			}
+		}
+		alc = calcAlcohol();
+		return previous;
+	}
 
+	/**
+	 * Update the Name, Color and Lore on the PotionMeta after ageBrew().
+	 * <p>Main thread only
+	 *
+	 * @param previous The Recipe the Brew had before aging, as returned by ageBrew()
+	 */
+	void applyAge(PotionMeta potionMeta, @Nullable ItemStack item, @Nullable BRecipe previous) {
+		if (immutable) return;
+		BrewLore lore = new BrewLore(this, potionMeta);
+
+		if (ageTime > 0.5) {
+			if (currentRecipe != null) {
 				lore.addOrReplaceEffects(getEffects(), quality);
-				potionMeta.setDisplayName(Brewery.getInstance().color("&f" + recipe.getName(quality)));
-				recipe.getColor().colorBrew(potionMeta, item, canDistill());
+				potionMeta.setDisplayName(Brewery.getInstance().color("&f" + currentRecipe.getName(quality)));
+				currentRecipe.getColor().colorBrew(potionMeta, item, canDistill());
 			} else {
-				quality = 0;
+				// The Lore is still that of the previous Recipe
+				currentRecipe = previous;
 				lore.convertLore(false);
 				lore.removeEffects();
 				currentRecipe = null;
@@ -714,7 +833,6 @@ public class Brew implements Cloneable {
 				PotionColor.GREY.colorBrew(potionMeta, item, canDistill());
 			}
 		}
-		alc = calcAlcohol();
 		updateCustomModelData(potionMeta);
 
 		// Lore
@@ -735,15 +853,80 @@ public class Brew implements Cloneable {
 		}
 		lore.write();
 		touch();
-		BrewModifyEvent modifyEvent = new BrewModifyEvent(this, potionMeta, BrewModifyEvent.Type.AGE);
-		Brewery.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
-		if (modifyEvent.isCancelled()) {
-			// As the brew and everything connected to it is only saved on the meta from now on,
-			// not saving the brew into potionMeta is enough to not change anything in case of cancel
-			return;
+	}
+
+	/**
+	 * Age all Brews in the Items.
+	 * <p>Identical Brews are only loaded and aged once, the resulting Meta is then set on all of them.
+	 *
+	 * @param maxBrews The max number of not static Brews to age, -1 for no limit
+	 * @return The Brew in each slot, null if there is none. Identical Brews share the same instance
+	 */
+	public static Brew[] ageAll(ItemStack[] items, float time, byte woodType, int maxBrews) {
+		ItemMeta[] metas = new ItemMeta[items.length];
+		for (int i = 0; i < items.length; i++) {
+			ItemStack item = items[i];
+			if (item != null && item.getType() == Material.POTION && item.hasItemMeta()) {
+				metas[i] = item.getItemMeta();
+			}
 		}
-		save(potionMeta);
-		item.setItemMeta(potionMeta);
+		int[] groups = groupIdentical(metas);
+		Brew[] brews = new Brew[items.length];
+		ItemMeta[] results = new ItemMeta[items.length];
+		int aged = 0;
+		for (int i = 0; i < items.length; i++) {
+			int group = groups[i];
+			if (group < 0) continue;
+			if (group == i) {
+				Brew brew = get(items[i]);
+				if (brew == null) continue;
+				brews[i] = brew;
+				if (!brew.isStatic()) {
+					if (maxBrews >= 0 && aged >= maxBrews) continue;
+					brew.age(items[i], time, woodType);
+					aged++;
+				}
+				results[i] = items[i].getItemMeta();
+			} else if (brews[group] != null) {
+				// Identical to an earlier Brew, just copy its result
+				Brew brew = brews[group];
+				brews[i] = brew;
+				if (results[group] == null) continue;
+				if (!brew.isStatic()) {
+					if (maxBrews >= 0 && aged >= maxBrews) continue;
+					aged++;
+				}
+				items[i].setItemMeta(results[group]);
+			}
+		}
+		return brews;
+	}
+
+	/**
+	 * Group identical Brews, so they only need to be loaded and aged once.
+	 * <p>Metas are identical if they hold the same raw Brew data and are otherwise equal
+	 *
+	 * @param metas The Metas of the Items, null for Items that are not potions
+	 * @return For each index, the index of the first identical Meta, -1 where the Meta is null
+	 */
+	public static int[] groupIdentical(ItemMeta[] metas) {
+		int[] groups = new int[metas.length];
+		int[] hashes = new int[metas.length];
+		for (int i = 0; i < metas.length; i++) {
+			groups[i] = -1;
+			ItemMeta meta = metas[i];
+			if (meta == null) continue;
+			byte[] raw = Brewery.getInstance().useNBT ? NBTLoadStream.getRawData(meta) : null;
+			hashes[i] = raw != null ? Arrays.hashCode(raw) : meta.hashCode();
+			groups[i] = i;
+			for (int j = 0; j < i; j++) {
+				if (groups[j] == j && hashes[j] == hashes[i] && metas[j].equals(meta)) {
+					groups[i] = j;
+					break;
+				}
+			}
+		}
+		return groups;
 	}
 
 	/**
@@ -841,6 +1024,17 @@ public class Brew implements Cloneable {
 
 		ItemMeta meta = item.getItemMeta();
 		assert meta != null;
+		return isBrew(meta);
+	}
+
+	/**
+	 * Performant way of checking if this Meta is of a Brew.
+	 * <p>Only looks at the Lore if there is no Brew data in the PersistentDataContainer
+	 *
+	 * @param meta The Meta to check
+	 * @return True if the meta is of a brew
+	 */
+	public static boolean isBrew(ItemMeta meta) {
 		if (!Brewery.getInstance().useNBT && !meta.hasLore()) return false;
 
 		if (Brewery.getInstance().useNBT) {
@@ -857,39 +1051,62 @@ public class Brew implements Cloneable {
 		return false;
 	}
 
-	private static Brew load(ItemMeta meta) {
-		InputStream itemLoadStream = null;
+	/**
+	 * Load the Brew from the Meta, without converting legacy Brews.
+	 * <p>Does not change the Meta, can be used off the main thread
+	 */
+	static Brew load(ItemMeta meta) {
+		byte[] data = null;
+		boolean inLore = false;
+		int changes = BRecipe.getChangeCount();
 		if (Brewery.getInstance().useNBT) {
 			// Try loading the Item Data from PersistentDataContainer
-			NBTLoadStream nbtStream = new NBTLoadStream(meta);
-			if (nbtStream.hasData()) {
-				itemLoadStream = nbtStream;
+			data = NBTLoadStream.getRawData(meta);
+			if (data != null && data.length > 0) {
+				Brew cached = BrewCache.get(data, changes);
+				if (cached != null) {
+					return cached;
+				}
+			} else {
+				data = null;
 			}
 		}
-		if (itemLoadStream == null) {
-			// If either NBT is not supported or no data was found in NBT, try loading from Lore
-			try {
-				itemLoadStream = new Base91DecoderStream(new LoreLoadStream(meta, 0));
-			} catch (IllegalArgumentException ignored) {
-				// No Brew data found in Meta
+
+		try {
+			if (data == null) {
+				// If either NBT is not supported or no data was found in NBT, try loading from Lore
+				try {
+					data = LoreLoadStream.decodeDataLine(LoreLoadStream.getDataLine(meta, 0));
+					inLore = true;
+				} catch (IllegalArgumentException ignored) {
+					// No Brew data found in Meta
+					return null;
+				}
+			}
+			if (data.length < 2) {
+				Brewery.getInstance().errorLog("Failed to load Brew. Maybe something corrupted the Lore of the Item?");
 				return null;
 			}
-		}
 
-		XORUnscrambleStream unscrambler = new XORUnscrambleStream(itemLoadStream, saveSeed, prevSaveSeeds);
-		try (DataInputStream in = new DataInputStream(unscrambler)) {
 			boolean parityFailed = false;
-			if (in.readByte() != 86) {
+			if (data[0] != 86) {
 				Brewery.getInstance().errorLog("Parity check failed on Brew while loading, trying to load anyways!");
 				parityFailed = true;
 			}
 			Brew brew = new Brew();
-			byte ver = in.readByte();
+			byte ver = data[1];
+			XORUnscrambleStream.SuccessType successType;
 			switch (ver) {
 				case 1:
 
-					unscrambler.start();
-					brew.loadFromStream(in, ver);
+					successType = BrewCodec.decode(data, 2, saveSeed, prevSaveSeeds, in -> brew.loadFromStream(in, ver));
+
+					break;
+				case 2:
+				case 3:
+
+					// Has the fingerprint of its seed, compact format since v3
+					successType = BrewCodec.decode(data, 2, saveSeed, prevSaveSeeds, seedFingerprints, in -> brew.loadFromStream(in, ver));
 
 					break;
 				default:
@@ -900,21 +1117,25 @@ public class Brew implements Cloneable {
 					}
 					return null;
 			}
+			XORUnscrambleStream.SuccessType used = successType;
+			Brewery.getInstance().debugLog(DebugCategory.BREWS, () -> "Brew data read: " + used);
 
-			XORUnscrambleStream.SuccessType successType = unscrambler.getSuccessType();
 			if (successType == XORUnscrambleStream.SuccessType.PREV_SEED) {
-				Brewery.getInstance().debugLog("Converting Brew from previous Seed");
+				Brewery.getInstance().debugLog(DebugCategory.BREWS, () -> "Converting Brew from previous Seed");
 				brew.setNeedsSave(true);
 			} else if ((BConfig.enableEncode && !brew.isStripped()) != (successType == XORUnscrambleStream.SuccessType.MAIN_SEED)) {
 				// We have either enabled encode and the data was not encoded or the other way round
-				Brewery.getInstance().debugLog("Converting Brew to new encode setting");
+				Brewery.getInstance().debugLog(DebugCategory.BREWS, () -> "Converting Brew to new encode setting");
 				brew.setNeedsSave(true);
-			} else if (Brewery.getInstance().useNBT && itemLoadStream instanceof Base91DecoderStream) {
+			} else if (Brewery.getInstance().useNBT && inLore) {
 				// We are on a version that supports nbt but the data is still in the lore of the item
 				// Just save it again so that it gets saved to nbt
-				Brewery.getInstance().debugLog("Converting Brew to NBT");
+				Brewery.getInstance().debugLog(DebugCategory.BREWS, () -> "Converting Brew to NBT");
 				brew.setNeedsSave(true);
 			}
+			if (!inLore) {
+				BrewCache.put(data, brew, changes);
+			}
 			return brew;
 		} catch (IOException e) {
 			Brewery.getInstance().errorLog("IO Error while loading Brew");
@@ -927,6 +1148,10 @@ public class Brew implements Cloneable {
 	}
 
 	private void loadFromStream(DataInputStream in, byte dataVersion) throws IOException {
+		if (dataVersion >= 3) {
+			loadCompactFromStream(in, dataVersion);
+			return;
+		}
 		quality = in.readByte();
 		int bools = in.readUnsignedByte();
 		if ((bools & 64) != 0) {
@@ -952,34 +1177,78 @@ public class Brew implements Cloneable {
 		setRecipeFromString(recipe);
 	}
 
+	/**
+	 * Load the compact format used since v3
+	 */
+	private void loadCompactFromStream(DataInputStream in, byte dataVersion) throws IOException {
+		quality = in.readByte();
+		int bools = in.readUnsignedByte();
+		if ((bools & 64) != 0) {
+			alc = BUtil.readSignedVarInt(in);
+		}
+		if ((bools & 1) != 0) {
+			distillRuns = in.readByte();
+		}
+		if ((bools & 2) != 0) {
+			ageTime = in.readFloat();
+		}
+		if ((bools & 4) != 0) {
+			wood = in.readFloat();
+		}
+		int recipe = 0;
+		byte recipeCheck = 0;
+		String recipeName = null;
+		if ((bools & 8) != 0) {
+			recipe = BUtil.readVarInt(in);
+			if (recipe == 0) {
+				recipeName = in.readUTF();
+			} else {
+				recipeCheck = in.readByte();
+			}
+		}
+		unlabeled = (bools & 16) != 0;
+		immutable = (bools & 32) != 0;
+		stripped = (bools & 128) != 0;
+		ingredients = BIngredients.load(in, dataVersion);
+		if (recipeName != null) {
+			setRecipeFromString(recipeName);
+		} else if (recipe != 0) {
+			setRecipeFromHash(recipe, recipeCheck);
+		}
+	}
+
 	/**
 	 * Save brew data into meta: lore/nbt.
 	 * <p>Should be called after any changes made to the brew
 	 */
 	public void save(ItemMeta meta) {
-		OutputStream itemSaveStream;
-		if (Brewery.getInstance().useNBT) {
-			itemSaveStream = new NBTSaveStream(meta);
-		} else {
-			itemSaveStream = new Base91EncoderStream(new LoreSaveStream(meta, 0));
-		}
-		XORScrambleStream scrambler = new XORScrambleStream(itemSaveStream, saveSeed);
-		try (DataOutputStream out = new DataOutputStream(scrambler)) {
-			out.writeByte(86); // Parity/sanity
-			out.writeByte(SAVE_VER); // Version
-			// If Stripped of data, we can save everything unscrambled
-			if (BConfig.enableEncode && !isStripped()) {
-				scrambler.start();
-			} else {
-				scrambler.startUnscrambled();
-			}
-			saveToStream(out);
+		try {
+			writeData(meta, encode());
 		} catch (IOException e) {
 			Brewery.getInstance().errorLog("IO Error while saving Brew");
 			Brewery.getInstance().getLogger().log(Level.SEVERE, e.getMessage(), e);
 		}
 	}
 
+	/**
+	 * Encode the brew data, ready to be written to a meta
+	 */
+	private byte[] encode() throws IOException {
+		// 86: Parity/sanity, followed by the Version
+		// If Stripped of data, we can save everything unscrambled
+		return BrewCodec.encode(86, SAVE_VER, saveSeed, BConfig.enableEncode && !isStripped(), true, this::saveToStream);
+	}
+
+	private static void writeData(ItemMeta meta, byte[] data) throws IOException {
+		if (Brewery.getInstance().useNBT) {
+			NBTSaveStream.setRawData(meta, data);
+		} else {
+			LoreSaveStream loreStream = new LoreSaveStream(meta, 0);
+			loreStream.write(basE91.encode(data));
+			loreStream.flush();
+		}
+	}
+
 	/**
 	 * Save brew data into the meta/lore of the specified item.
 	 * <p>The meta on the item changes, so to make further changes to the meta, item.getItemMeta() has to be called again after this
@@ -997,6 +1266,43 @@ public class Brew implements Cloneable {
 		item.setItemMeta(meta);
 	}
 
+	/**
+	 * Save the Brews into the Items at the same index.
+	 * <p>Each Brew is only encoded once, even if it is saved into several Items
+	 *
+	 * @param brews The Brews to save, null where nothing should be saved
+	 * @param items The Items to save into, has to be at least the size of brews
+	 */
+	public static void saveAll(Brew[] brews, ItemStack[] items) {
+		Map<Brew, byte[]> encoded = new IdentityHashMap<>();
+		for (int i = 0; i < brews.length; i++) {
+			Brew brew = brews[i];
+			ItemStack item = items[i];
+			if (brew == null || item == null) continue;
+			try {
+				byte[] data = encoded.get(brew);
+				if (data == null) {
+					data = brew.encode();
+					encoded.put(brew, data);
+				}
+				ItemMeta meta;
+				if (!item.hasItemMeta()) {
+					meta = Brewery.getInstance().getServer().getItemFactory().getItemMeta(item.getType());
+				} else {
+					meta = item.getItemMeta();
+				}
+				writeData(meta, data);
+				item.setItemMeta(meta);
+			} catch (IOException e) {
+				Brewery.getInstance().errorLog("IO Error while saving Brew");
+				Brewery.getInstance().getLogger().log(Level.SEVERE, e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Write the brew data in the format of SAVE_VER
+	 */
 	public void saveToStream(DataOutputStream out) throws IOException {
 		if (quality > 10) {
 			quality = 10;
@@ -1016,7 +1322,7 @@ public class Brew implements Cloneable {
 		bools |= (stripped 		? 128 : 0);
 		out.writeByte(bools);
 		if (alc != 0) {
-			out.writeShort(alc);
+			BUtil.writeSignedVarInt(out, alc);
 		}
 		if (distillRuns != 0) {
 			out.writeByte(distillRuns);
@@ -1028,7 +1334,15 @@ public class Brew implements Cloneable {
 			out.writeFloat(wood);
 		}
 		if (currentRecipe != null) {
-			out.writeUTF(currentRecipe.getRecipeName());
+			int recipe = BRecipe.nameHash(currentRecipe.getRecipeName());
+			if (BRecipe.getByNameHash(recipe) == currentRecipe) {
+				BUtil.writeVarInt(out, recipe);
+				out.writeByte(BRecipe.nameCheck(currentRecipe.getRecipeName()));
+			} else {
+				// Another recipe has the same hash, or this one is not in the list. 0 and the full name instead
+				BUtil.writeVarInt(out, 0);
+				out.writeUTF(currentRecipe.getRecipeName());
+			}
 		}
 		ingredients.save(out);
 	}
@@ -1036,9 +1350,11 @@ public class Brew implements Cloneable {
 	public static void loadPrevSeeds(ConfigurationSection section) {
 		if (section.contains("prevSaveSeeds")) {
 			prevSaveSeeds = section.getLongList("prevSaveSeeds");
+			BrewCache.clear();
 			if (!prevSaveSeeds.contains(saveSeed)) {
 				prevSaveSeeds.add(saveSeed);
 			}
+			updateFingerprints();
 		}
 	}
 
@@ -1049,6 +1365,8 @@ public class Brew implements Cloneable {
 	}
 
 	public static void loadSeed(ConfigurationSection config, File file) {
+		// Reloading may change the key, recipes and encode settings the cached Brews were loaded with
+		BrewCache.clear();
 		saveSeed = config.getLong("encodeKey", 0);
 		if (saveSeed == 0) {
 			while (saveSeed == 0) {
@@ -1061,6 +1379,20 @@ public class Brew implements Cloneable {
 		if (!prevSaveSeeds.contains(saveSeed)) {
 			prevSaveSeeds.add(saveSeed);
 		}
+		updateFingerprints();
+	}
+
+	/**
+	 * Map all known Save Seeds by their fingerprint.
+	 * <p>Later seeds win on collisions, any other seed is still found by trying all of them
+	 */
+	private static void updateFingerprints() {
+		Map<Integer, Long> fingerprints = new HashMap<>();
+		for (long seed : prevSaveSeeds) {
+			fingerprints.put(BrewCodec.fingerprint(seed), seed);
+		}
+		fingerprints.put(BrewCodec.fingerprint(saveSeed), saveSeed);
+		seedFingerprints = fingerprints;
 	}
 
 	public static boolean noLegacy() {
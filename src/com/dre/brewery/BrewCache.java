@@ -0,0 +1,89 @@
+package com.dre.brewery;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the last loaded Brews by their raw data, so loading the same Item again needs no decoding.
+ * <p>Only hands out copies, the cached Brews are never changed.
+ * Has to be cleared when the encode key or the config changes, cleared by itself when the recipes change. Thread-safe
+ */
+class BrewCache {
+
+	private static final int MAX_SIZE = 512;
+
+	private static final Map<Key, Brew> cache = new LinkedHashMap<Key, Brew>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Brew> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+	private static int changeCount = -1;
+
+	/**
+	 * Get a copy of the Brew loaded from this raw data, null if not cached
+	 *
+	 * @param changes BRecipe.getChangeCount() before loading
+	 */
+	@Nullable
+	static Brew get(byte[] raw, int changes) {
+		Brew brew;
+		synchronized (cache) {
+			if (changeCount != changes) {
+				// The cached Brews may have the wrong recipe now
+				cache.clear();
+				changeCount = changes;
+				return null;
+			}
+			brew = cache.get(new Key(raw));
+		}
+		return brew != null ? brew.clone() : null;
+	}
+
+	/**
+	 * Cache a copy of the Brew that was just loaded from this raw data
+	 *
+	 * @param changes BRecipe.getChangeCount() before loading, the Brew is not cached if the recipes changed since
+	 */
+	static void put(byte[] raw, Brew brew, int changes) {
+		Brew copy = brew.clone();
+		synchronized (cache) {
+			if (changeCount != changes) {
+				return;
+			}
+			cache.put(new Key(raw.clone()), copy);
+		}
+	}
+
+	static void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	private static class Key {
+		private final byte[] raw;
+		private final int hash;
+
+		private Key(byte[] raw) {
+			this.raw = raw;
+			hash = Arrays.hashCode(raw);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key key = (Key) o;
+			return hash == key.hash && Arrays.equals(raw, key.raw);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -30,6 +30,7 @@ import com.dre.brewery.integration.IntegrationListener;
 import com.dre.brewery.listeners.*;
 import com.dre.brewery.recipe.*;
 import com.dre.brewery.utility.BUtil;
+import com.dre.brewery.utility.DebugCategory;
 import com.dre.brewery.utility.LegacyUtil;
 import com.dre.brewery.utility.Stats;
 import org.bukkit.Bukkit;
@@ -42,15 +43,18 @@ import org.bukkit.event.HandlerList;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.sql.SQLException;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 public class Brewery extends JavaPlugin {
 	private static Brewery instance;
 	public boolean debug;
+	private Set<DebugCategory> debugCategories = EnumSet.allOf(DebugCategory.class);
 	public boolean useUUID;
 	public boolean useNBT;
 	public boolean use1_9;
@@ -291,6 +295,30 @@ public class Brewery extends JavaPlugin {
 		}
 	}
 
+	/**
+	 * Log a debug message of a category.
+	 * <p>The message is only created if debug messages of this category are shown
+	 */
+	public void debugLog(DebugCategory category, Supplier<String> msg) {
+		if (isDebugging(category)) {
+			this.msg(Bukkit.getConsoleSender(), "&2[Debug] &f" + msg.get());
+		}
+	}
+
+	/**
+	 * If debug messages of this category are shown
+	 */
+	public boolean isDebugging(DebugCategory category) {
+		return debug && debugCategories.contains(category);
+	}
+
+	/**
+	 * Set which categories of debug messages are shown while debug is enabled
+	 */
+	public void setDebugCategories(Set<DebugCategory> categories) {
+		debugCategories = categories.isEmpty() ? EnumSet.noneOf(DebugCategory.class) : EnumSet.copyOf(categories);
+	}
+
 	public void errorLog(String msg) {
 		Bukkit.getConsoleSender().sendMessage(ChatColor.DARK_GREEN + "[Brewery] " + ChatColor.DARK_RED + "ERROR: " + ChatColor.RED + msg);
 		if (BConfig.reloader != null) {
@@ -353,13 +381,7 @@ public class Brewery extends JavaPlugin {
 		public void run() {
 			long t1 = System.nanoTime();
 			BConfig.reloader = null;
-			Iterator<BCauldron> iter = BCauldron.bcauldrons.values().iterator();
-			while (iter.hasNext()) {
-				// runs every min to update cooking time
-				if (!iter.next().onUpdate()) {
-					iter.remove();
-				}
-			}
+			BCauldron.updateAll();// runs every min to update cooking time
 			long t2 = System.nanoTime();
 			Barrel.onUpdate();// runs every min to check and update ageing time
 			long t3 = System.nanoTime();
@@ -371,7 +393,7 @@ public class Brewery extends JavaPlugin {
 			DataSave.autoSave();
 			long t6 = System.nanoTime();
 
-			debugLog("BreweryRunnable: " +
+			debugLog(DebugCategory.TASKS, () -> "BreweryRunnable: " +
 				"t1: " + (t2 - t1) / 1000000.0 + "ms" +
 				" | t2: " + (t3 - t2) / 1000000.0 + "ms" +
 				" | t3: " + (t4 - t3) / 1000000.0 + "ms" +
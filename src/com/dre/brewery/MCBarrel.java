@@ -1,5 +1,6 @@
 package com.dre.brewery;
 
+import com.dre.brewery.utility.DebugCategory;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.block.Barrel;
@@ -48,29 +49,23 @@ public class MCBarrel {
 			long time = mcBarrelTime - data.getOrDefault(key, PersistentDataType.LONG, mcBarrelTime);
 			data.remove(key);
 			barrel.update();
-			Brewery.getInstance().debugLog("Barrel Time since last open: " + time);
+			Brewery.getInstance().debugLog(DebugCategory.BARRELS, () -> "Barrel Time since last open: " + time);
 
 			if (time > 0) {
 				brews = 0;
 				// if inventory contains potions
 				if (inv.contains(Material.POTION)) {
 					long loadTime = System.nanoTime();
-					for (ItemStack item : inv.getContents()) {
-						if (item != null) {
-							Brew brew = Brew.get(item);
-							if (brew != null && !brew.isStatic()) {
-								if (brews < maxBrews || maxBrews < 0) {
-									// The time is in minutes, but brew.age() expects time in mc-days
-									brew.age(item, ((float) time) / 20f, OAK);
-								}
-								brews++;
-							}
+					// The time is in minutes, but brew.age() expects time in mc-days
+					for (Brew brew : Brew.ageAll(inv.getContents(), ((float) time) / 20f, OAK, maxBrews)) {
+						if (brew != null && !brew.isStatic()) {
+							brews++;
 						}
 					}
-					if (Brewery.getInstance().debug) {
+					if (Brewery.getInstance().isDebugging(DebugCategory.BARRELS)) {
 						loadTime = System.nanoTime() - loadTime;
 						float ftime = (float) (loadTime / 1000000.0);
-						Brewery.getInstance().debugLog("opening MC Barrel with potions (" + ftime + "ms)");
+						Brewery.getInstance().debugLog(DebugCategory.BARRELS, () -> "opening MC Barrel with potions (" + ftime + "ms)");
 					}
 				}
 			}
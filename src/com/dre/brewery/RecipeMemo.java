@@ -0,0 +1,137 @@
+package com.dre.brewery;
+
+import com.dre.brewery.recipe.BRecipe;
+import com.dre.brewery.recipe.Ingredient;
+import com.dre.brewery.recipe.RecipeItem;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the Recipes that fit some ingredients, cooking time and distilling, with their ingredient and cooking quality.
+ * <p>These don't depend on wood and age, which are cheap to score every time. Identical Brews in Barrels and Brewers
+ * then only need to be matched against the recipes once, however long they age.
+ * Cleared whenever the recipes change, see BRecipe.getChangeCount(). Thread-safe
+ */
+class RecipeMemo {
+
+	private static final int MAX_SIZE = 256;
+
+	private static final Map<Key, Result> memo = new LinkedHashMap<Key, Result>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+	private static int changeCount = -1;
+
+	/**
+	 * Get the remembered Result for these ingredients, null if not remembered
+	 *
+	 * @param changes BRecipe.getChangeCount() before matching
+	 */
+	@Nullable
+	static Result get(List<Ingredient> ingredients, int cookedTime, boolean distilled, int changes) {
+		synchronized (memo) {
+			if (changeCount != changes) {
+				memo.clear();
+				changeCount = changes;
+				return null;
+			}
+			return memo.get(new Key(ingredients, cookedTime, distilled));
+		}
+	}
+
+	/**
+	 * Remember the Result of matching these ingredients
+	 *
+	 * @param changes BRecipe.getChangeCount() before matching, the result is not remembered if the recipes changed since
+	 */
+	static void put(List<Ingredient> ingredients, int cookedTime, boolean distilled, Result result, int changes) {
+		List<Ingredient> copy = new ArrayList<>(ingredients.size());
+		for (Ingredient ingredient : ingredients) {
+			if (!(ingredient instanceof RecipeItem rItem)) {
+				// Can't make sure the key doesn't change
+				return;
+			}
+			if (rItem.isImmutable()) {
+				copy.add(ingredient);
+			} else {
+				copy.add((Ingredient) rItem.getMutableCopy());
+			}
+		}
+		if (BRecipe.getChangeCount() != changes) {
+			return;
+		}
+		synchronized (memo) {
+			if (changeCount != changes) {
+				return;
+			}
+			memo.put(new Key(copy, cookedTime, distilled), result);
+		}
+	}
+
+	/**
+	 * The Recipes that fit, in the order of the candidates, with the ingredient and cooking quality at the same index
+	 */
+	static class Result {
+		final BRecipe[] recipes;
+		final int[] ingredientQualities;
+		final int[] cookingQualities;
+
+		/**
+		 * Keeps only the candidates where both qualities are not -1
+		 */
+		Result(List<BRecipe> candidates, int[] ingredientQualities, int[] cookingQualities) {
+			int count = 0;
+			for (int i = 0; i < ingredientQualities.length; i++) {
+				if (ingredientQualities[i] > -1 && cookingQualities[i] > -1) {
+					count++;
+				}
+			}
+			recipes = new BRecipe[count];
+			this.ingredientQualities = new int[count];
+			this.cookingQualities = new int[count];
+			int n = 0;
+			for (int i = 0; i < ingredientQualities.length; i++) {
+				if (ingredientQualities[i] > -1 && cookingQualities[i] > -1) {
+					recipes[n] = candidates.get(i);
+					this.ingredientQualities[n] = ingredientQualities[i];
+					this.cookingQualities[n] = cookingQualities[i];
+					n++;
+				}
+			}
+		}
+	}
+
+	private static class Key {
+		private final List<Ingredient> ingredients;
+		private final int cookedTime;
+		private final boolean distilled;
+		private final int hash;
+
+		private Key(List<Ingredient> ingredients, int cookedTime, boolean distilled) {
+			this.ingredients = ingredients;
+			this.cookedTime = cookedTime;
+			this.distilled = distilled;
+			hash = Objects.hash(ingredients, cookedTime, distilled);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key key = (Key) o;
+			return hash == key.hash && cookedTime == key.cookedTime && distilled == key.distilled && ingredients.equals(key.ingredients);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -146,6 +146,57 @@ public class BreweryApi {
 		return Brew.isBrew(item);
 	}
 
+	/**
+	 * Get the Brews from many ItemStacks at once.
+	 * <p>Much faster than calling getBrew() for each item, identical items are only read once
+	 * <p>Returns an array of the same size, null where the item is not a Brew
+	 *
+	 * @param items The items to read, may contain null
+	 * @return The Brew of each item
+	 */
+	public static Brew[] getBrews(ItemStack[] items) {
+		return Brew.getAll(items);
+	}
+
+	/**
+	 * Get the Brews of all items in an Inventory.
+	 * <p>Returns an array the size of the Inventory, null for each slot that holds no Brew
+	 */
+	public static Brew[] getBrews(Inventory inventory) {
+		ItemStack[] contents = inventory.getContents();
+		Brew[] brews = Brew.getAll(contents);
+		// Brews saved in a previous format may have been converted
+		inventory.setContents(contents);
+		return brews;
+	}
+
+	/**
+	 * Save many Brews into their ItemStacks at once.
+	 * <p>Each Brew is only encoded once, even if saved into many items
+	 *
+	 * @param brews The Brews to save, null where nothing should be saved
+	 * @param items The items to save the Brew at the same index into
+	 */
+	public static void saveBrews(Brew[] brews, ItemStack[] items) {
+		if (items.length < brews.length) {
+			throw new IllegalArgumentException("Less items than Brews");
+		}
+		Brew.saveAll(brews, items);
+	}
+
+	/**
+	 * Save many Brews into the items of an Inventory at once.
+	 * <p>The Brew at each index is saved into the item in the same slot, as returned by getBrews()
+	 *
+	 * @param brews The Brews to save, null where nothing should be saved
+	 * @param inventory The Inventory holding the items
+	 */
+	public static void saveBrews(Brew[] brews, Inventory inventory) {
+		ItemStack[] contents = inventory.getContents();
+		saveBrews(brews, contents);
+		inventory.setContents(contents);
+	}
+
 	/**
 	 * Create a Brew for the given Recipe Name
 	 *
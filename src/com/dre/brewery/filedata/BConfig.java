@@ -9,6 +9,7 @@ import com.dre.brewery.recipe.BRecipe;
 import com.dre.brewery.recipe.PluginItem;
 import com.dre.brewery.recipe.RecipeItem;
 import com.dre.brewery.utility.BUtil;
+import com.dre.brewery.utility.DebugCategory;
 import com.dre.brewery.utility.SQLSync;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -24,9 +25,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 
 public class BConfig {
@@ -47,6 +50,7 @@ public class BConfig {
 	public static boolean openEverywhere;
 	public static boolean loadDataAsync;
 	public static boolean virtualChestPerms;
+	public static float barrelCheckBudget; // Time in ms per tick the check for broken barrels may use
 
 	// Cauldron
 	public static boolean useOffhandForCauldron;
@@ -81,6 +85,7 @@ public class BConfig {
 
 	//Item
 	public static List<RecipeItem> customItems = new ArrayList<>();
+	public static int parallelRecipeThreshold; // Score the Recipes in parallel if there are more candidates, 0 to never
 
 	//MySQL
 	public static String sqlHost, sqlPort, sqlDB;
@@ -196,6 +201,20 @@ public class BConfig {
 		// various Settings
 		DataSave.autosave = config.getInt("autosave", 3);
 		Brewery.getInstance().debug = config.getBoolean("debug", false);
+		// Hidden option to only show some categories of debug messages, all if not set
+		Set<DebugCategory> debugCategories = EnumSet.allOf(DebugCategory.class);
+		if (config.isList("debugCategories")) {
+			debugCategories = EnumSet.noneOf(DebugCategory.class);
+			for (String name : config.getStringList("debugCategories")) {
+				DebugCategory category = DebugCategory.get(name);
+				if (category != null) {
+					debugCategories.add(category);
+				} else {
+					p.errorLog("Unknown debug category: " + name);
+				}
+			}
+		}
+		Brewery.getInstance().setDebugCategories(debugCategories);
 		pukeItem = Material.matchMaterial(config.getString("pukeItem", "SOUL_SAND"));
 		hangoverTime = config.getInt("hangoverDays", 0) * 24 * 60;
 		overdrinkKick = config.getBoolean("enableKickOnOverdrink", false);
@@ -219,7 +238,10 @@ public class BConfig {
 		minimalParticles = config.getBoolean("minimalParticles", false);
 		useOffhandForCauldron = config.getBoolean("useOffhandForCauldron", false);
 		loadDataAsync = config.getBoolean("loadDataAsync", true);
+		barrelCheckBudget = (float) config.getDouble("barrelCheckBudget", 0.5);
 		brewHopperDump = config.getBoolean("brewHopperDump", false);
+		// Hidden option, only worth it with a lot of Recipes
+		parallelRecipeThreshold = Math.max(0, config.getInt("parallelRecipeThreshold", 256));
 
 		if (Brewery.getInstance().use1_14) {
 			MCBarrel.maxBrews = config.getInt("maxBrewsInMCBarrels", 6);
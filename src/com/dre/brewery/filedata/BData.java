@@ -1,11 +1,12 @@
 package com.dre.brewery.filedata;
 
 import com.dre.brewery.*;
-import com.dre.brewery.lore.Base91DecoderStream;
+import com.dre.brewery.lore.basE91;
 import com.dre.brewery.recipe.Ingredient;
 import com.dre.brewery.recipe.SimpleItem;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.BoundingBox;
+import com.dre.brewery.utility.DebugCategory;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -38,7 +39,7 @@ public class BData {
 
 			long t2 = System.currentTimeMillis();
 
-			Brewery.getInstance().debugLog("Loading data.yml: " + (t2 - t1) + "ms");
+			Brewery.getInstance().debugLog(DebugCategory.STORAGE, () -> "Loading data.yml: " + (t2 - t1) + "ms");
 
 			// Check if data is the newest version
 			String version = data.getString("Version", null);
@@ -190,7 +191,7 @@ public class BData {
 	}
 
 	public static BIngredients deserializeIngredients(String mat) {
-		try (DataInputStream in = new DataInputStream(new Base91DecoderStream(new ByteArrayInputStream(mat.getBytes())))) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(basE91.decode(mat)))) {
 			byte ver = in.readByte();
 			return BIngredients.load(in, ver);
 		} catch (IOException e) {
@@ -211,7 +212,8 @@ public class BData {
 				} else {
 					m = Material.matchMaterial(matSplit[0], true);
 				}
-				Brewery.getInstance().debugLog("converting Data Material from " + matSplit[0] + " to " + m);
+				Material converted = m;
+				Brewery.getInstance().debugLog(DebugCategory.STORAGE, () -> "converting Data Material from " + matSplit[0] + " to " + converted);
 			}
 			if (m == null) continue;
 			SimpleItem item;
@@ -291,7 +293,7 @@ public class BData {
 					Brewery.getInstance().log("Bukkit took " + (t2 - t1) / 1000.0 + "s to load Inventories from the World-Data File (in the Background),");
 					Brewery.getInstance().log("consider switching to Paper, or have less items in Barrels if it takes a long time for Barrels to become available");
 				} else {
-					Brewery.getInstance().debugLog("Loading worlddata.yml: " + (t2 - t1) + "ms");
+					Brewery.getInstance().debugLog(DebugCategory.STORAGE, () -> "Loading worlddata.yml: " + (t2 - t1) + "ms");
 				}
 			} else {
 				return;
@@ -368,12 +370,15 @@ public class BData {
 							}
 						}
 
+						// Contents in compact encoding, only decoded when the Barrel Inventory is needed
+						String items = section.getString(barrel + ".items");
+
 						Barrel b;
 						if (invSection != null) {
-							b = new Barrel(block, sign, box, invSection.getValues(true), time, true);
+							b = new Barrel(block, sign, box, invSection.getValues(true), items, time, true);
 						} else {
 							// Barrel has no inventory
-							b = new Barrel(block, sign, box, null, time, true);
+							b = new Barrel(block, sign, box, null, items, time, true);
 						}
 
 						if (b.getBody().getBounds() != null) {
@@ -425,18 +430,21 @@ public class BData {
 				return;
 			}
 			if (!initCauldrons.isEmpty()) {
-				BCauldron.bcauldrons.putAll(initCauldrons);
+				BCauldron.registerAll(initCauldrons.values());
 			}
 			if (!initBarrels.isEmpty()) {
-				Barrel.barrels.addAll(initBarrels);
+				Barrel.registerAll(initBarrels);
+				// Contents saved the usual way, for example while their Chunk was loaded, are only kept encoded from now on
+				Barrel.encodeStored(initBarrels);
 			}
 			if (!initBadBarrels.isEmpty()) {
 				for (Barrel badBarrel : initBadBarrels) {
 					if (badBarrel.getBody().regenerateBounds()) {
-						Barrel.barrels.add(badBarrel);
+						Barrel.register(badBarrel);
 					}
 					// In case Barrel Block locations were missing and could not be recreated: do not add the barrel
 				}
+				Barrel.encodeStored(initBadBarrels);
 
 			}
 			if (!initWakeups.isEmpty()) {
@@ -466,4 +474,32 @@ public class BData {
 	public static void releaseDataLoadMutex() {
 		dataMutex.decrementAndGet();
 	}
+
+	/**
+	 * Keep the Contents of a removed Barrel that could not be decoded in barrelRecovery.yml.
+	 * <p>They are stored the same way as the items of a Barrel in the world data,
+	 * so they can be restored once the config or version that can decode them is back
+	 *
+	 * @param spigot The Spigot of the removed Barrel
+	 * @param items The Contents in compact encoding
+	 * @return If they could be written to the file
+	 */
+	public static boolean saveUnrestored(Block spigot, String items) {
+		File file = new File(Brewery.getInstance().getDataFolder(), "barrelRecovery.yml");
+		FileConfiguration recovery = YamlConfiguration.loadConfiguration(file);
+		String key = String.valueOf(System.currentTimeMillis());
+		while (recovery.contains(key)) {
+			key += "_";
+		}
+		recovery.set(key + ".world", spigot.getWorld().getUID().toString());
+		recovery.set(key + ".spigot", spigot.getX() + "/" + spigot.getY() + "/" + spigot.getZ());
+		recovery.set(key + ".items", items);
+		try {
+			recovery.save(file);
+			return true;
+		} catch (IOException e) {
+			Brewery.getInstance().getLogger().log(Level.SEVERE, e.getMessage(), e);
+			return false;
+		}
+	}
 }
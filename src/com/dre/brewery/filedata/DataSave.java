@@ -3,6 +3,7 @@ package com.dre.brewery.filedata;
 
 import com.dre.brewery.*;
 import com.dre.brewery.utility.BUtil;
+import com.dre.brewery.utility.DebugCategory;
 import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -95,11 +96,11 @@ public class DataSave extends BukkitRunnable {
 				BPlayer.save(data.createSection("Player"));
 			}
 
-			if (!BCauldron.bcauldrons.isEmpty() || oldWorldData.contains("BCauldron")) {
+			if (BCauldron.count() > 0 || oldWorldData.contains("BCauldron")) {
 				BCauldron.save(worldData.createSection("BCauldron"), oldWorldData.getConfigurationSection("BCauldron"));
 			}
 
-			if (!Barrel.barrels.isEmpty() || oldWorldData.contains("Barrel")) {
+			if (Barrel.count() > 0 || oldWorldData.contains("Barrel")) {
 				Barrel.save(worldData.createSection("Barrel"), oldWorldData.getConfigurationSection("Barrel"));
 			}
 
@@ -127,7 +128,7 @@ public class DataSave extends BukkitRunnable {
 				unloadingWorlds.clear();
 			}
 
-			Brewery.getInstance().debugLog("saving: " + ((System.nanoTime() - saveTime) / 1000000.0) + "ms");
+			Brewery.getInstance().debugLog(DebugCategory.STORAGE, () -> "saving: " + ((System.nanoTime() - saveTime) / 1000000.0) + "ms");
 
 			if (Brewery.getInstance().isEnabled()) {
 				Brewery.getInstance().getServer().getScheduler().runTaskAsynchronously(Brewery.getInstance(), new WriteData(data, worldData));
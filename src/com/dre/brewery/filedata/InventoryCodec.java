@@ -0,0 +1,425 @@
+package com.dre.brewery.filedata;
+
+import com.dre.brewery.Brew;
+import com.dre.brewery.Brewery;
+import com.dre.brewery.lore.NBTLoadStream;
+import com.dre.brewery.lore.NBTSaveStream;
+import com.dre.brewery.lore.basE91;
+import org.bukkit.Color;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Compact encoding of the Contents of an Inventory for keeping in memory and storing in the World-Data File.
+ * <p>For Brews only the Brew data and the few Meta fields a Brew uses are written, instead of the whole Bukkit serialization of the Item.
+ * Other Items, and Brews that can not be restored exactly from these fields, are written in binary Bukkit serialization.
+ * <p>Every Item is a separate entry with its length, so an Item that can't be decoded can be skipped and kept as it is.
+ * <p>Only used in 1.14 and higher
+ */
+public class InventoryCodec {
+
+	private static final byte VERSION = 2;
+	static final byte TYPE_BREW = 0;
+	static final byte TYPE_ITEM = 1;
+
+	/**
+	 * Encode all Items in the Contents.
+	 * <p>Can be run async, if nothing changes the Items meanwhile
+	 *
+	 * @param contents The Contents to encode, slots may be null
+	 * @param encoded Is set to true for every slot that was encoded, has to be the size of contents
+	 * @param keep Already encoded Items to add to the result, as returned by decode()
+	 * @return The encoded and the kept Items, null if there are none.
+	 * If the kept Items can't be read, nothing is encoded and they are returned as they are
+	 */
+	@Nullable
+	public static String encode(ItemStack[] contents, boolean[] encoded, @Nullable String keep) {
+		if (!Brewery.getInstance().use1_14) {
+			return keep;
+		}
+		List<Entry> entries = new ArrayList<>();
+		if (keep != null) {
+			try {
+				entries.addAll(readEntries(keep));
+			} catch (IOException | RuntimeException e) {
+				return keep;
+			}
+		}
+		ItemMeta[] metas = new ItemMeta[contents.length];
+		for (int slot = 0; slot < contents.length; slot++) {
+			ItemStack item = contents[slot];
+			if (item != null && item.getType() == Material.POTION && item.hasItemMeta()) {
+				metas[slot] = item.getItemMeta();
+			}
+		}
+		// Identical Brews only need to be checked once
+		int[] groups = Brew.groupIdentical(metas);
+		boolean[] asBrew = new boolean[contents.length];
+		for (int slot = 0; slot < contents.length; slot++) {
+			int group = groups[slot];
+			if (group < 0) continue;
+			asBrew[slot] = group == slot ? canRestore((PotionMeta) metas[slot]) : asBrew[group];
+		}
+
+		boolean added = false;
+		for (int slot = 0; slot < contents.length; slot++) {
+			ItemStack item = contents[slot];
+			if (item == null) continue;
+			try {
+				if (asBrew[slot]) {
+					entries.add(new Entry(slot, TYPE_BREW, writeBrew(item.getAmount(), (PotionMeta) metas[slot])));
+				} else {
+					entries.add(new Entry(slot, TYPE_ITEM, writeItem(item)));
+				}
+				encoded[slot] = true;
+				added = true;
+			} catch (IOException | RuntimeException e) {
+				// Not encoded, has to be saved the usual way
+				encoded[slot] = false;
+			}
+		}
+		if (!added) {
+			return keep;
+		}
+
+		try {
+			return writeEntries(entries);
+		} catch (IOException e) {
+			Brewery.getInstance().getLogger().log(Level.SEVERE, e.getMessage(), e);
+			Arrays.fill(encoded, false);
+			return keep;
+		}
+	}
+
+	/**
+	 * Decode the encoded Items into their slots.
+	 * <p>Items whose slot is outside of the Contents or already taken, or that can't be decoded, are skipped.
+	 * They are returned in the same encoding, so they can be kept and saved again instead of being lost.
+	 * <p>If the data can't be read at all, the Contents are not changed and the data is returned as it is.
+	 * <p>Can be run async
+	 *
+	 * @param data The String created by encode()
+	 * @param contents The Contents to put the Items into
+	 * @return The encoded Items that could not be put into the Contents, null if all of them were
+	 */
+	@Nullable
+	public static String decode(String data, ItemStack[] contents) {
+		List<Entry> entries;
+		try {
+			// Read all entries first, so nothing is changed if the data is incomplete
+			entries = readEntries(data);
+		} catch (IOException | RuntimeException e) {
+			Brewery.getInstance().errorLog("Could not read Barrel Contents, keeping them as they are: " + e.getMessage());
+			return data;
+		}
+
+		List<Entry> kept = new ArrayList<>();
+		for (Entry entry : entries) {
+			if (entry.slot >= contents.length || contents[entry.slot] != null) {
+				kept.add(entry);
+				continue;
+			}
+			try {
+				contents[entry.slot] = readEntry(entry);
+			} catch (IOException | RuntimeException e) {
+				Brewery.getInstance().errorLog("Could not restore Item in Barrel slot " + entry.slot + ", keeping it as it is: " + e.getMessage());
+				kept.add(entry);
+			}
+		}
+		if (kept.isEmpty()) {
+			return null;
+		}
+		try {
+			return writeEntries(kept);
+		} catch (IOException e) {
+			// Can't happen writing to memory, keep all as they were
+			Brewery.getInstance().getLogger().log(Level.SEVERE, e.getMessage(), e);
+			return data;
+		}
+	}
+
+	/**
+	 * Read the entries of data in the current or the first Version
+	 */
+	static List<Entry> readEntries(String data) throws IOException {
+		byte[] bytes = basE91.decode(data);
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			byte ver = in.readByte();
+			if (ver == 1) {
+				return readEntriesV1(in, bytes);
+			}
+			if (ver != VERSION) {
+				throw new IOException("Unknown Version: " + ver);
+			}
+			return readEntries(in);
+		}
+	}
+
+	private static List<Entry> readEntries(DataInputStream in) throws IOException {
+		int count = in.readUnsignedShort();
+		List<Entry> entries = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int slot = in.readUnsignedByte();
+			byte type = in.readByte();
+			int length = in.readInt();
+			if (length < 0) {
+				throw new IOException("Invalid length: " + length);
+			}
+			byte[] payload = new byte[length];
+			in.readFully(payload);
+			entries.add(new Entry(slot, type, payload));
+		}
+		return entries;
+	}
+
+	/**
+	 * Read the first Version, where the Brews were written one after another without their length.
+	 * <p>Each Brew is the amount and the Meta fields, the same as a Brew entry now, so its bytes are taken as they are
+	 *
+	 * @param in The Stream over bytes, after the Version
+	 */
+	private static List<Entry> readEntriesV1(DataInputStream in, byte[] bytes) throws IOException {
+		int count = in.readUnsignedByte();
+		List<Entry> entries = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int slot = in.readUnsignedByte();
+			int start = bytes.length - in.available();
+			in.readUnsignedByte(); // Amount
+			skipMeta(in);
+			entries.add(new Entry(slot, TYPE_BREW, Arrays.copyOfRange(bytes, start, bytes.length - in.available())));
+		}
+		return entries;
+	}
+
+	/**
+	 * Skip over the Meta fields as written by write()
+	 */
+	private static void skipMeta(DataInputStream in) throws IOException {
+		in.readFully(new byte[in.readUnsignedShort()]);
+		if (in.readBoolean()) {
+			in.readUTF();
+		}
+		int loreSize = in.readUnsignedByte();
+		for (int i = 0; i < loreSize; i++) {
+			in.readUTF();
+		}
+		if (in.readBoolean()) {
+			in.readInt();
+		}
+		int flags = in.readUnsignedByte();
+		for (int i = 0; i < flags; i++) {
+			in.readUTF();
+		}
+		if (in.readBoolean()) {
+			in.readInt();
+		}
+		int effects = in.readUnsignedByte();
+		for (int i = 0; i < effects; i++) {
+			in.readUTF();
+			in.readInt();
+			in.readByte();
+			in.readByte();
+		}
+	}
+
+	private static ItemStack readEntry(Entry entry) throws IOException {
+		if (entry.type == TYPE_ITEM) {
+			try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(entry.payload))) {
+				Object item = in.readObject();
+				if (!(item instanceof ItemStack)) {
+					throw new IOException("Not an Item: " + item);
+				}
+				return (ItemStack) item;
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e);
+			}
+		}
+		if (entry.type != TYPE_BREW) {
+			throw new IOException("Unknown Item type: " + entry.type);
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry.payload))) {
+			ItemStack item = new ItemStack(Material.POTION, in.readUnsignedByte());
+			PotionMeta meta = (PotionMeta) item.getItemMeta();
+			assert meta != null;
+			read(in, meta);
+			item.setItemMeta(meta);
+			return item;
+		}
+	}
+
+	private static byte[] writeBrew(int amount, PotionMeta meta) throws IOException {
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream(128);
+		try (DataOutputStream out = new DataOutputStream(byteStream)) {
+			out.writeByte(amount);
+			write(out, meta);
+		}
+		return byteStream.toByteArray();
+	}
+
+	private static byte[] writeItem(ItemStack item) throws IOException {
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream(256);
+		try (BukkitObjectOutputStream out = new BukkitObjectOutputStream(byteStream)) {
+			out.writeObject(item);
+		}
+		return byteStream.toByteArray();
+	}
+
+	static String writeEntries(List<Entry> entries) throws IOException {
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(byteStream)) {
+			out.writeByte(VERSION);
+			out.writeShort(entries.size());
+			for (Entry entry : entries) {
+				out.writeByte(entry.slot);
+				out.writeByte(entry.type);
+				out.writeInt(entry.payload.length);
+				out.write(entry.payload);
+			}
+		}
+		return new String(basE91.encode(byteStream.toByteArray()), StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * If this Meta is completely restored by writing and reading it.
+	 */
+	private static boolean canRestore(PotionMeta meta) {
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream(128);
+		try (DataOutputStream out = new DataOutputStream(byteStream)) {
+			write(out, meta);
+		} catch (IOException | IllegalArgumentException e) {
+			return false;
+		}
+		PotionMeta restored = (PotionMeta) Brewery.getInstance().getServer().getItemFactory().getItemMeta(Material.POTION);
+		assert restored != null;
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(byteStream.toByteArray()))) {
+			read(in, restored);
+		} catch (IOException | IllegalArgumentException e) {
+			return false;
+		}
+		return restored.equals(meta);
+	}
+
+	private static void write(DataOutputStream out, PotionMeta meta) throws IOException {
+		byte[] brewData = NBTLoadStream.getRawData(meta);
+		if (brewData != null) {
+			out.writeShort(brewData.length);
+			out.write(brewData);
+		} else {
+			out.writeShort(0);
+		}
+
+		out.writeBoolean(meta.hasDisplayName());
+		if (meta.hasDisplayName()) {
+			out.writeUTF(meta.getDisplayName());
+		}
+		List<String> lore = meta.hasLore() ? meta.getLore() : null;
+		if (lore != null) {
+			out.writeByte(lore.size());
+			for (String line : lore) {
+				out.writeUTF(line);
+			}
+		} else {
+			out.writeByte(0);
+		}
+		out.writeBoolean(meta.hasCustomModelData());
+		if (meta.hasCustomModelData()) {
+			out.writeInt(meta.getCustomModelData());
+		}
+		out.writeByte(meta.getItemFlags().size());
+		for (ItemFlag flag : meta.getItemFlags()) {
+			out.writeUTF(flag.name());
+		}
+		out.writeBoolean(meta.hasColor());
+		if (meta.hasColor()) {
+			//noinspection ConstantConditions
+			out.writeInt(meta.getColor().asRGB());
+		}
+		List<PotionEffect> effects = meta.getCustomEffects();
+		out.writeByte(effects.size());
+		for (PotionEffect effect : effects) {
+			//noinspection deprecation
+			out.writeUTF(effect.getType().getName());
+			out.writeInt(effect.getDuration());
+			out.writeByte(effect.getAmplifier());
+			out.writeByte((effect.isAmbient() ? 1 : 0) | (effect.hasParticles() ? 2 : 0) | (effect.hasIcon() ? 4 : 0));
+		}
+	}
+
+	private static void read(DataInputStream in, PotionMeta meta) throws IOException {
+		int length = in.readUnsignedShort();
+		if (length > 0) {
+			byte[] brewData = new byte[length];
+			in.readFully(brewData);
+			NBTSaveStream.setRawData(meta, brewData);
+		}
+
+		if (in.readBoolean()) {
+			meta.setDisplayName(in.readUTF());
+		}
+		int loreSize = in.readUnsignedByte();
+		if (loreSize > 0) {
+			List<String> lore = new ArrayList<>(loreSize);
+			for (int i = 0; i < loreSize; i++) {
+				lore.add(in.readUTF());
+			}
+			meta.setLore(lore);
+		}
+		if (in.readBoolean()) {
+			meta.setCustomModelData(in.readInt());
+		}
+		int flags = in.readUnsignedByte();
+		for (int i = 0; i < flags; i++) {
+			meta.addItemFlags(ItemFlag.valueOf(in.readUTF()));
+		}
+		if (in.readBoolean()) {
+			meta.setColor(Color.fromRGB(in.readInt()));
+		}
+		int effects = in.readUnsignedByte();
+		for (int i = 0; i < effects; i++) {
+			String name = in.readUTF();
+			//noinspection deprecation
+			PotionEffectType type = PotionEffectType.getByName(name);
+			if (type == null) {
+				throw new IllegalArgumentException("Unknown PotionEffectType: " + name);
+			}
+			int duration = in.readInt();
+			int amplifier = in.readByte();
+			int bits = in.readByte();
+			meta.addCustomEffect(new PotionEffect(type, duration, amplifier, (bits & 1) != 0, (bits & 2) != 0, (bits & 4) != 0), true);
+		}
+	}
+
+	/**
+	 * One encoded Item and its slot
+	 */
+	static class Entry {
+		final int slot;
+		final byte type;
+		final byte[] payload;
+
+		Entry(int slot, byte type, byte[] payload) {
+			this.slot = slot;
+			this.type = type;
+			this.payload = payload;
+		}
+	}
+}
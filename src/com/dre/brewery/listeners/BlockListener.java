@@ -75,22 +75,16 @@ public class BlockListener implements Listener {
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void onPistonRetract(BlockPistonRetractEvent event) {
 		if (event.isSticky()) {
-			for (Block block : event.getBlocks()) {
-				if (Barrel.get(block) != null) {
-					event.setCancelled(true);
-					return;
-				}
+			if (!Barrel.getHit(event.getBlocks()).isEmpty()) {
+				event.setCancelled(true);
 			}
 		}
 	}
 
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void onPistonExtend(BlockPistonExtendEvent event) {
-		for (Block block : event.getBlocks()) {
-			if (Barrel.get(block) != null) {
-				event.setCancelled(true);
-				return;
-			}
+		if (!Barrel.getHit(event.getBlocks()).isEmpty()) {
+			event.setCancelled(true);
 		}
 	}
 }
@@ -550,8 +550,8 @@ public class CommandListener implements CommandExecutor {
 
 		Brewery.getInstance().msg(sender, "Drunk Players: " + BPlayer.numDrunkPlayers());
 		Brewery.getInstance().msg(sender, "Brews created: " + Brewery.getInstance().stats.brewsCreated);
-		Brewery.getInstance().msg(sender, "Barrels built: " + Barrel.barrels.size());
-		Brewery.getInstance().msg(sender, "Cauldrons boiling: " + BCauldron.bcauldrons.size());
+		Brewery.getInstance().msg(sender, "Barrels built: " + Barrel.count());
+		Brewery.getInstance().msg(sender, "Cauldrons boiling: " + BCauldron.count());
 		Brewery.getInstance().msg(sender, "Number of Recipes: " + BRecipe.getAllRecipes().size());
 		Brewery.getInstance().msg(sender, "Wakeups: " + Wakeup.wakeups.size());
 	}
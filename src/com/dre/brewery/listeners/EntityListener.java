@@ -18,9 +18,8 @@ import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.entity.ItemDespawnEvent;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.HashMap;
+import java.util.Map;
 
 public class EntityListener implements Listener {
 
@@ -52,35 +51,26 @@ public class EntityListener implements Listener {
 
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void onExplode(EntityExplodeEvent event) {
-		ListIterator<Block> iter = event.blockList().listIterator();
-		if (!iter.hasNext()) return;
-		List<BarrelDestroyEvent> breakEvents = new ArrayList<>(6);
-		Block block;
-		blocks: while (iter.hasNext()) {
-			block = iter.next();
-			if (!breakEvents.isEmpty()) {
-				for (BarrelDestroyEvent breakEvent : breakEvents) {
-					if (breakEvent.getBarrel().hasBlock(block)) {
-						if (breakEvent.isCancelled()) {
-							iter.remove();
-						}
-						continue blocks;
-					}
-				}
-			}
-			Barrel barrel = Barrel.get(block);
-			if (barrel != null) {
-				BarrelDestroyEvent breakEvent = new BarrelDestroyEvent(barrel, block, BarrelDestroyEvent.Reason.EXPLODED, null);
+		Map<Block, Barrel> hit = Barrel.getHitBlocks(event.blockList());
+		if (hit.isEmpty()) return;
+		Map<Barrel, BarrelDestroyEvent> breakEvents = new HashMap<>(6);
+		for (Map.Entry<Block, Barrel> entry : hit.entrySet()) {
+			Barrel barrel = entry.getValue();
+			if (!breakEvents.containsKey(barrel)) {
+				BarrelDestroyEvent breakEvent = new BarrelDestroyEvent(barrel, entry.getKey(), BarrelDestroyEvent.Reason.EXPLODED, null);
 				// Listened to by LWCBarrel (IntegrationListener)
 				Brewery.getInstance().getServer().getPluginManager().callEvent(breakEvent);
-				breakEvents.add(breakEvent);
-				if (breakEvent.isCancelled()) {
-					iter.remove();
-				} else {
-					barrel.remove(block, null, true);
+				breakEvents.put(barrel, breakEvent);
+				if (!breakEvent.isCancelled()) {
+					barrel.remove(entry.getKey(), null, true);
 				}
 			}
 		}
+		// Keep the Blocks of Barrels that may not be destroyed
+		event.blockList().removeIf(block -> {
+			Barrel barrel = hit.get(block);
+			return barrel != null && breakEvents.get(barrel).isCancelled();
+		});
 	}
 
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
@@ -3,6 +3,7 @@ package com.dre.brewery.listeners;
 import com.dre.brewery.*;
 import com.dre.brewery.filedata.BConfig;
 import com.dre.brewery.lore.BrewLore;
+import com.dre.brewery.utility.DebugCategory;
 import org.bukkit.Material;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
@@ -32,7 +33,7 @@ public class InventoryListener implements Listener {
 		Inventory inv = event.getInventory();
 		if (player == null || !(inv instanceof BrewerInventory)) return;
 
-		Brewery.getInstance().debugLog("Starting brew inventory tracking");
+		Brewery.getInstance().debugLog(DebugCategory.TASKS, () -> "Starting brew inventory tracking");
 		trackedBrewmen.add(player.getUniqueId());
 	}
 
@@ -46,7 +47,7 @@ public class InventoryListener implements Listener {
 		Inventory inv = event.getInventory();
 		if (player == null || !(inv instanceof BrewerInventory)) return;
 
-		Brewery.getInstance().debugLog("Stopping brew inventory tracking");
+		Brewery.getInstance().debugLog(DebugCategory.TASKS, () -> "Stopping brew inventory tracking");
 		trackedBrewmen.remove(player.getUniqueId());
 	}
 
@@ -127,6 +128,21 @@ public class InventoryListener implements Listener {
 		}
 	}
 
+	// Lock the Barrel while its brews are being aged async
+	@EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+	public void onInventoryClickAgingBarrel(InventoryClickEvent event) {
+		if (event.getInventory().getHolder() instanceof Barrel && ((Barrel) event.getInventory().getHolder()).isAging()) {
+			event.setCancelled(true);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+	public void onInventoryDragAgingBarrel(InventoryDragEvent event) {
+		if (event.getInventory().getHolder() instanceof Barrel && ((Barrel) event.getInventory().getHolder()).isAging()) {
+			event.setCancelled(true);
+		}
+	}
+
 	// convert to non colored Lore when taking out of Barrel/Brewer
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
 	public void onInventoryClick(InventoryClickEvent event) {
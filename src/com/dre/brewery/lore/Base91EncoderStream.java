@@ -1,6 +1,5 @@
 package com.dre.brewery.lore;
 
-import java.io.ByteArrayInputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -58,13 +57,14 @@ public class Base91EncoderStream extends FilterOutputStream {
 		}
 
 		// More data than space in the Buffer
-		ByteArrayInputStream in = new ByteArrayInputStream(b, off, len);
-		while (true) {
-			writer += in.read(buf, writer, buf.length - writer);
+		while (len > 0) {
+			int copy = Math.min(len, buf.length - writer);
+			System.arraycopy(b, off, buf, writer, copy);
+			writer += copy;
+			off += copy;
+			len -= copy;
 			if (writer >= buf.length) {
 				encFlush();
-			} else {
-				break;
 			}
 		}
 	}
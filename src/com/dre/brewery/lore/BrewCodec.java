@@ -0,0 +1,292 @@
+package com.dre.brewery.lore;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes and reads scrambled Brew data in a single pass over reused buffers.
+ * <p>Produces exactly the same data as writing through an XORScrambleStream,
+ * and reads data written by it, without the chain of Streams and their allocations.
+ * <p>Each Thread has its own buffers, so this can be used from any Thread.
+ * Does not log, the caller can tell from the returned SuccessType how the data was read
+ */
+public class BrewCodec {
+
+	// Same generator as in SeedInputStream
+	private static final long multiplier = 0x5DEECE66DL;
+	private static final long addend = 0xBL;
+	private static final long mask = (1L << 48) - 1;
+
+	private static final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+	/**
+	 * Writes data to a Stream
+	 */
+	@FunctionalInterface
+	public interface DataWriter {
+		void write(DataOutputStream out) throws IOException;
+	}
+
+	/**
+	 * Reads data from a Stream
+	 */
+	@FunctionalInterface
+	public interface DataReader {
+		void read(DataInputStream in) throws IOException;
+	}
+
+	/**
+	 * Write the data with two unscrambled header bytes, scrambled with the seed if scramble is true.
+	 * <p>Same as writing magic and version to an XORScrambleStream, calling start() or startUnscrambled() and then writing the data.
+	 *
+	 * @param magic The first header byte
+	 * @param version The second header byte
+	 * @param seed The seed to scramble with
+	 * @param scramble If false, the data is marked as unscrambled and written as is
+	 * @param writer Writes the data to scramble
+	 * @return The finished data
+	 */
+	public static byte[] encode(int magic, int version, long seed, boolean scramble, DataWriter writer) throws IOException {
+		return encode(magic, version, seed, scramble, false, writer);
+	}
+
+	/**
+	 * Write the data with two unscrambled header bytes, scrambled with the seed if scramble is true.
+	 * <p>With withFingerprint, the fingerprint of the seed is written after the scrambler header,
+	 * so the data can be read with the fingerprint map instead of trying all seeds.
+	 *
+	 * @param magic The first header byte
+	 * @param version The second header byte
+	 * @param seed The seed to scramble with
+	 * @param scramble If false, the data is marked as unscrambled and written as is
+	 * @param withFingerprint If the fingerprint of the seed should be written, only if scrambled
+	 * @param writer Writes the data to scramble
+	 * @return The finished data
+	 */
+	public static byte[] encode(int magic, int version, long seed, boolean scramble, boolean withFingerprint, DataWriter writer) throws IOException {
+		short id = 0;
+		if (scramble) {
+			while (id == 0) {
+				id = (short) ThreadLocalRandom.current().nextInt();
+			}
+		}
+		return encode(magic, version, seed, id, withFingerprint, writer);
+	}
+
+	/**
+	 * Write the data scrambled with the given id, unscrambled if it is 0.
+	 * <p>The id is random in normal use, a fixed one gives the same result as an XORScrambleStream that chose it
+	 */
+	static byte[] encode(int magic, int version, long seed, short id, boolean withFingerprint, DataWriter writer) throws IOException {
+		boolean scramble = id != 0;
+		Buffers b = buffers.get();
+		if (b.inUse) {
+			b = new Buffers();
+		}
+		b.inUse = true;
+		try {
+			OutBuffer buf = b.outBuf;
+			buf.reset();
+			DataOutputStream out = b.out;
+			out.writeByte(magic);
+			out.writeByte(version);
+			out.writeShort(id);
+			if (scramble && withFingerprint) {
+				out.writeShort(fingerprint(seed));
+			}
+			int start = buf.size();
+			if (scramble) {
+				out.writeByte((int) (seed >> 48) & 0xFF); // parity/sanity
+			}
+			writer.write(out);
+			out.flush();
+
+			byte[] data = buf.getBuffer();
+			int end = buf.size();
+			if (scramble) {
+				xor(data, data, start, start, end - start, seed ^ id);
+			}
+			return Arrays.copyOf(data, end);
+		} finally {
+			b.inUse = false;
+		}
+	}
+
+	/**
+	 * Read data written by encode() or an XORScrambleStream, unscrambling it if needed.
+	 * <p>If the main seed fails, all previous seeds are tried, starting at the most recent.
+	 *
+	 * @param data The data to read
+	 * @param offset Where the scrambler header starts, after any unscrambled header bytes
+	 * @param seed The main seed
+	 * @param prevSeeds Previously used seeds, may be null
+	 * @param reader Reads the unscrambled data
+	 * @return What was used to unscramble the data
+	 * @throws InvalidKeyException If none of the seeds could unscramble the data
+	 */
+	public static XORUnscrambleStream.SuccessType decode(byte[] data, int offset, long seed, List<Long> prevSeeds, DataReader reader) throws IOException, InvalidKeyException {
+		return decode(data, offset, seed, prevSeeds, null, reader);
+	}
+
+	/**
+	 * Read data written by encode(), unscrambling it if needed.
+	 * <p>If fingerprints are given, the data has to contain the fingerprint of its seed, which is then looked up in them.
+	 * Only if that fails, the main seed and all previous seeds are tried, starting at the most recent.
+	 *
+	 * @param data The data to read
+	 * @param offset Where the scrambler header starts, after any unscrambled header bytes
+	 * @param seed The main seed
+	 * @param prevSeeds Previously used seeds, may be null
+	 * @param fingerprints The seeds by their fingerprint, null if the data has no fingerprint
+	 * @param reader Reads the unscrambled data
+	 * @return What was used to unscramble the data
+	 * @throws InvalidKeyException If none of the seeds could unscramble the data
+	 */
+	public static XORUnscrambleStream.SuccessType decode(byte[] data, int offset, long seed, List<Long> prevSeeds, @Nullable Map<Integer, Long> fingerprints, DataReader reader) throws IOException, InvalidKeyException {
+		if (data.length < offset + 2) {
+			throw new IOException("Brew data too short");
+		}
+		short id = (short) ((data[offset] & 0xFF) << 8 | (data[offset + 1] & 0xFF));
+		int start = offset + 2;
+		Long fingerprintSeed = null;
+		if (id != 0 && fingerprints != null) {
+			if (data.length < start + 2) {
+				throw new IOException("Brew data too short");
+			}
+			fingerprintSeed = fingerprints.get((data[start] & 0xFF) << 8 | (data[start + 1] & 0xFF));
+			start += 2;
+		}
+
+		Buffers b = buffers.get();
+		if (b.inUse) {
+			b = new Buffers();
+		}
+		b.inUse = true;
+		try {
+			XORUnscrambleStream.SuccessType successType;
+			if (id == 0) {
+				successType = XORUnscrambleStream.SuccessType.UNSCRAMBLED;
+				b.inBuf.setData(data, start, data.length - start);
+			} else {
+				if (data.length <= start) {
+					throw new IOException("Brew data too short");
+				}
+				int parity = data[start] & 0xFF;
+				long usedSeed = seed;
+				if (fingerprintSeed != null && checkParity(parity, fingerprintSeed, id)) {
+					usedSeed = fingerprintSeed;
+					successType = usedSeed == seed ? XORUnscrambleStream.SuccessType.MAIN_SEED : XORUnscrambleStream.SuccessType.PREV_SEED;
+				} else if (checkParity(parity, seed, id)) {
+					successType = XORUnscrambleStream.SuccessType.MAIN_SEED;
+				} else {
+					successType = null;
+					if (prevSeeds != null) {
+						for (int i = prevSeeds.size() - 1; i >= 0; i--) {
+							usedSeed = prevSeeds.get(i);
+							if (checkParity(parity, usedSeed, id)) {
+								successType = XORUnscrambleStream.SuccessType.PREV_SEED;
+								break;
+							}
+						}
+					}
+					if (successType == null) {
+						throw new InvalidKeyException("Could not read scrambled data, is the seed wrong?");
+					}
+				}
+				int length = data.length - start;
+				if (b.scratch.length < length) {
+					b.scratch = new byte[Math.max(length, b.scratch.length * 2)];
+				}
+				xor(data, b.scratch, start, 0, length, usedSeed ^ id);
+				// Skip the parity byte
+				b.inBuf.setData(b.scratch, 1, length - 1);
+			}
+			reader.read(b.in);
+			return successType;
+		} finally {
+			b.inBuf.setData(Buffers.EMPTY, 0, 0);
+			b.inUse = false;
+		}
+	}
+
+	/**
+	 * Short fingerprint of the seed, to identify the seed some data was scrambled with.
+	 * <p>Gives away far too little to reconstruct the seed from it
+	 */
+	public static int fingerprint(long seed) {
+		// SplitMix64 finalizer
+		long h = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		h ^= h >>> 31;
+		return (int) (h >>> 48);
+	}
+
+	private static boolean checkParity(int parity, long seed, short id) {
+		long state = next((seed ^ id ^ multiplier) & mask);
+		int first = (int) (state >>> 16) >>> 24;
+		return ((parity ^ first) & 0xFF) == ((int) (seed >> 48) & 0xFF);
+	}
+
+	private static long next(long state) {
+		return (state * multiplier + addend) & mask;
+	}
+
+	/**
+	 * XOR length bytes from src into dest with the keystream of the seed, as generated by SeedInputStream
+	 */
+	private static void xor(byte[] src, byte[] dest, int srcPos, int destPos, int length, long seed) {
+		long state = (seed ^ multiplier) & mask;
+		int i = 0;
+		while (i < length) {
+			state = next(state);
+			int next = (int) (state >>> 16);
+			for (int shift = 24; shift >= 0 && i < length; shift -= 8, i++) {
+				dest[destPos + i] = (byte) (src[srcPos + i] ^ (next >> shift));
+			}
+		}
+	}
+
+	private static class Buffers {
+		private static final byte[] EMPTY = new byte[0];
+
+		private final OutBuffer outBuf = new OutBuffer();
+		private final DataOutputStream out = new DataOutputStream(outBuf);
+		private final InBuffer inBuf = new InBuffer();
+		private final DataInputStream in = new DataInputStream(inBuf);
+		private byte[] scratch = new byte[128];
+		private boolean inUse;
+	}
+
+	private static class OutBuffer extends ByteArrayOutputStream {
+		private OutBuffer() {
+			super(128);
+		}
+
+		private byte[] getBuffer() {
+			return buf;
+		}
+	}
+
+	private static class InBuffer extends ByteArrayInputStream {
+		private InBuffer() {
+			super(Buffers.EMPTY);
+		}
+
+		private void setData(byte[] data, int offset, int length) {
+			buf = data;
+			pos = offset;
+			count = offset + length;
+			mark = offset;
+		}
+	}
+}
@@ -18,23 +18,40 @@ public class LoreLoadStream extends ByteArrayInputStream {
 	}
 
 	private static byte[] loreToBytes(ItemMeta meta, int lineNum) throws IllegalArgumentException {
+		return loreLineToBytes(getDataLine(meta, lineNum));
+	}
+
+	/**
+	 * Get the Lore line that holds the encoded data, starting with the IDENTIFIER
+	 *
+	 * @param lineNum The line to look at first, -1 to search all
+	 * @throws IllegalArgumentException If there is no data in the lore
+	 */
+	public static String getDataLine(ItemMeta meta, int lineNum) throws IllegalArgumentException {
 		if (meta.hasLore()) {
 			List<String> lore = meta.getLore();
-			if (lineNum >= 0) {
+			if (lineNum >= 0 && lineNum < lore.size()) {
 				String line = lore.get(lineNum);
 				if (line.startsWith(IDENTIFIER)) {
-					return loreLineToBytes(line);
+					return line;
 				}
 			}
 			for (String line : lore) {
 				if (line.startsWith(IDENTIFIER)) {
-					return loreLineToBytes(line);
+					return line;
 				}
 			}
 		}
 		throw new IllegalArgumentException("Meta has no data in lore");
 	}
 
+	/**
+	 * Decode the basE91 encoded data of the Lore line, skipping the colour chars it is hidden with
+	 */
+	public static byte[] decodeDataLine(String line) {
+		return basE91.decode(line, IDENTIFIER.length(), line.length());
+	}
+
 	private static byte[] loreLineToBytes(String line) {
 		StringBuilder build = new StringBuilder((int) (line.length() / 2F));
 		byte skip = 2;
@@ -15,6 +15,13 @@ public class NBTLoadStream extends ByteArrayInputStream {
 		super(getNBTBytes(meta));
 	}
 
+	/**
+	 * Load from raw Brew data, as returned by getRawData()
+	 */
+	public NBTLoadStream(byte[] data) {
+		super(data);
+	}
+
 	private static byte[] getNBTBytes(ItemMeta meta) {
 		byte[] bytes = LegacyUtil.readBytesItem(meta, KEY);
 		if (bytes == null) {
@@ -27,6 +34,13 @@ public class NBTLoadStream extends ByteArrayInputStream {
 		return count > 0;
 	}
 
+	/**
+	 * The raw, still scrambled Brew data stored in the Meta, null if there is none
+	 */
+	public static byte[] getRawData(ItemMeta meta) {
+		return LegacyUtil.readBytesItem(meta, KEY);
+	}
+
 	public static boolean hasDataInMeta(ItemMeta meta) {
 		return LegacyUtil.hasBytesItem(meta, KEY);
 	}
@@ -25,4 +25,11 @@ public class NBTSaveStream extends ByteArrayOutputStream {
 		if (size() <= 0) return;
 		LegacyUtil.writeBytesItem(toByteArray(), meta, KEY);
 	}
+
+	/**
+	 * Store raw, already scrambled Brew data in the Meta, as read by NBTLoadStream.getRawData()
+	 */
+	public static void setRawData(ItemMeta meta, byte[] data) {
+		LegacyUtil.writeBytesItem(data, meta, KEY);
+	}
 }
@@ -37,7 +37,7 @@ public class SeedInputStream extends InputStream {
 
 	@Override
 	public int read(@NotNull byte[] b, int off, int len) {
-		for (int i = off; i < len; i++) {
+		for (int i = off; i < off + len; i++) {
 			if (reader >= 4) {
 				genNext();
 			}
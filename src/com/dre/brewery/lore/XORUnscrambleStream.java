@@ -1,6 +1,5 @@
 package com.dre.brewery.lore;
 
-import com.dre.brewery.Brewery;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.FilterInputStream;
@@ -66,7 +65,6 @@ public class XORUnscrambleStream extends FilterInputStream {
 			if (id == 0) {
 				running = false;
 				successType = SuccessType.UNSCRAMBLED;
-				Brewery.getInstance().debugLog("Unscrambled data");
 				return;
 			}
 			int parity = in.read();
@@ -74,7 +72,6 @@ public class XORUnscrambleStream extends FilterInputStream {
 			boolean success = checkParity(parity);
 			if (success) {
 				successType = SuccessType.MAIN_SEED;
-				Brewery.getInstance().debugLog("Using main Seed to unscramble");
 			}
 
 			if (!success && prevSeeds != null) {
@@ -83,7 +80,6 @@ public class XORUnscrambleStream extends FilterInputStream {
 					xorStream = new SeedInputStream(seed ^ id);
 					if (success = checkParity(parity)) {
 						successType = SuccessType.PREV_SEED;
-						Brewery.getInstance().debugLog("Had to use prevSeed to unscramble");
 						break;
 					}
 				}
@@ -31,10 +31,14 @@ package com.dre.brewery.lore;
  * POSSIBILITY OF SUCH DAMAGE.
  */
 
+import java.util.Arrays;
+
 public class basE91
 {
 	public static final byte[] enctab;
 	private static final byte[] dectab;
+	private static final byte[] encpairs; // Both chars for each 13/14 bit value
+	private static final ThreadLocal<byte[][]> scratch = ThreadLocal.withInitial(() -> new byte[][] {new byte[256]});
 
 	private int ebq, en, dbq, dn, dv;
 	private int[] marker = null;
@@ -88,12 +92,12 @@ public class basE91
 		int i, c = 0;
 
 		for (i = 0; i < n; ++i) {
-			if (dectab[ib[i]] == -1)
+			if (dectab[ib[i] & 255] == -1)
 				continue;
 			if (dv == -1)
-				dv = dectab[ib[i]];
+				dv = dectab[ib[i] & 255];
 			else {
-				dv += dectab[ib[i]] * 91;
+				dv += dectab[ib[i] & 255] * 91;
 				dbq |= dv << dn;
 				dn += (dv & 8191) > 88 ? 13 : 14;
 				do {
@@ -135,6 +139,123 @@ public class basE91
 		dv = marker[2];
 	}
 
+	/**
+	 * Encode all data at once, same result as encode() followed by encEnd()
+	 *
+	 * @return The encoded chars, one byte each
+	 */
+	public static byte[] encode(byte[] data)
+	{
+		byte[] ob = getScratch(data.length * 16 / 13 + 4);
+		int ebq = 0, en = 0, c = 0;
+
+		for (byte b : data) {
+			ebq |= (b & 255) << en;
+			en += 8;
+			if (en > 13) {
+				int ev = ebq & 8191;
+
+				if (ev > 88) {
+					ebq >>= 13;
+					en -= 13;
+				} else {
+					ev = ebq & 16383;
+					ebq >>= 14;
+					en -= 14;
+				}
+				ob[c++] = encpairs[ev << 1];
+				ob[c++] = encpairs[(ev << 1) + 1];
+			}
+		}
+		if (en > 0) {
+			ob[c++] = enctab[ebq % 91];
+			if (en > 7 || ebq > 90)
+				ob[c++] = enctab[ebq / 91];
+		}
+		return Arrays.copyOf(ob, c);
+	}
+
+	/**
+	 * Decode all chars at once, same result as decode() followed by decEnd().
+	 * <p>Chars that are not part of the encoding are skipped
+	 */
+	public static byte[] decode(CharSequence data)
+	{
+		return decode(data, 0, data.length());
+	}
+
+	/**
+	 * Decode the chars from start to end at once, same result as decode() followed by decEnd().
+	 * <p>Chars that are not part of the encoding are skipped
+	 */
+	public static byte[] decode(CharSequence data, int start, int end)
+	{
+		byte[] ob = getScratch(end - start);
+		int dbq = 0, dn = 0, dv = -1, c = 0;
+
+		for (int i = start; i < end; ++i) {
+			char ch = data.charAt(i);
+			int d = ch < 256 ? dectab[ch] : -1;
+			if (d == -1)
+				continue;
+			if (dv == -1)
+				dv = d;
+			else {
+				dv += d * 91;
+				dbq |= dv << dn;
+				dn += (dv & 8191) > 88 ? 13 : 14;
+				do {
+					ob[c++] = (byte) dbq;
+					dbq >>= 8;
+					dn -= 8;
+				} while (dn > 7);
+				dv = -1;
+			}
+		}
+		if (dv != -1)
+			ob[c++] = (byte) (dbq | dv << dn);
+		return Arrays.copyOf(ob, c);
+	}
+
+	/**
+	 * Decode all encoded chars at once, one byte each
+	 */
+	public static byte[] decode(byte[] data)
+	{
+		byte[] ob = getScratch(data.length);
+		int dbq = 0, dn = 0, dv = -1, c = 0;
+
+		for (byte b : data) {
+			int d = dectab[b & 255];
+			if (d == -1)
+				continue;
+			if (dv == -1)
+				dv = d;
+			else {
+				dv += d * 91;
+				dbq |= dv << dn;
+				dn += (dv & 8191) > 88 ? 13 : 14;
+				do {
+					ob[c++] = (byte) dbq;
+					dbq >>= 8;
+					dn -= 8;
+				} while (dn > 7);
+				dv = -1;
+			}
+		}
+		if (dv != -1)
+			ob[c++] = (byte) (dbq | dv << dn);
+		return Arrays.copyOf(ob, c);
+	}
+
+	private static byte[] getScratch(int size)
+	{
+		byte[][] holder = scratch.get();
+		if (holder[0].length < size)
+			holder[0] = new byte[Math.max(size, holder[0].length * 2)];
+		return holder[0];
+	}
+
 	public basE91()
 	{
 		encReset();
@@ -151,5 +272,11 @@ public class basE91
 			dectab[i] = -1;
 		for (i = 0; i < 91; ++i)
 			dectab[enctab[i]] = (byte) i;
+		// Values are at most 8191, or 8192 + 88 if the 14th bit is used
+		encpairs = new byte[91 * 91 * 2];
+		for (i = 0; i < 91 * 91; ++i) {
+			encpairs[i << 1] = enctab[i % 91];
+			encpairs[(i << 1) + 1] = enctab[i / 91];
+		}
 	}
 }
@@ -0,0 +1,77 @@
+package com.dre.brewery.recipe;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the accepted custom items of the Cauldron by the Material of the items they can match.
+ * <p>Rebuilt whenever BCauldronRecipe.acceptedCustom changes. Only used on the main thread
+ */
+class AcceptedCustomIndex {
+
+	private static List<RecipeItem> indexed; // The list the index was built from
+	private static int indexedModCount = -1;
+	private static Map<Material, RecipeItem[]> byMaterial = new EnumMap<>(Material.class);
+	private static RecipeItem[] anyMaterial = new RecipeItem[0]; // Items that can match items of any Material
+
+	/**
+	 * Get the accepted custom items that could match an item of this Material, in the order of acceptedCustom
+	 */
+	static RecipeItem[] getCandidates(Material type) {
+		List<RecipeItem> accepted = BCauldronRecipe.acceptedCustom;
+		if (!(accepted instanceof TrackedList)) {
+			// Replaced by someone, can't tell when it changes
+			return accepted.toArray(new RecipeItem[0]);
+		}
+		int modCount = ((TrackedList<RecipeItem>) accepted).getModCount();
+		if (indexed != accepted || indexedModCount != modCount) {
+			index(accepted);
+			indexed = accepted;
+			indexedModCount = modCount;
+		}
+		RecipeItem[] candidates = byMaterial.get(type);
+		return candidates != null ? candidates : anyMaterial;
+	}
+
+	private static void index(List<RecipeItem> accepted) {
+		Map<Material, List<RecipeItem>> withMaterial = new EnumMap<>(Material.class);
+		// Collect the Materials first, so items of any Material can be added to all lists in order
+		for (RecipeItem item : accepted) {
+			Collection<Material> materials = item.getRequiredMaterials();
+			if (materials != null) {
+				for (Material mat : materials) {
+					withMaterial.putIfAbsent(mat, new ArrayList<>());
+				}
+			}
+		}
+		List<RecipeItem> any = new ArrayList<>();
+		for (RecipeItem item : accepted) {
+			Collection<Material> materials = item.getRequiredMaterials();
+			if (materials == null) {
+				any.add(item);
+				for (List<RecipeItem> list : withMaterial.values()) {
+					list.add(item);
+				}
+			} else {
+				for (Material mat : materials) {
+					List<RecipeItem> list = withMaterial.get(mat);
+					// Don't add twice if the Material is listed twice
+					if (list.isEmpty() || list.get(list.size() - 1) != item) {
+						list.add(item);
+					}
+				}
+			}
+		}
+		Map<Material, RecipeItem[]> index = new EnumMap<>(Material.class);
+		for (Map.Entry<Material, List<RecipeItem>> entry : withMaterial.entrySet()) {
+			index.put(entry.getKey(), entry.getValue().toArray(new RecipeItem[0]));
+		}
+		byMaterial = index;
+		anyMaterial = any.toArray(new RecipeItem[0]);
+	}
+}
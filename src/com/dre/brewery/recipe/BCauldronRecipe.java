@@ -1,6 +1,7 @@
 package com.dre.brewery.recipe;
 
 import com.dre.brewery.Brewery;
+import com.dre.brewery.utility.DebugCategory;
 import com.dre.brewery.utility.StringParser;
 import com.dre.brewery.utility.Tuple;
 import org.bukkit.Color;
@@ -17,16 +18,20 @@ import java.util.stream.Collectors;
  * A Recipe for the Base Potion coming out of the Cauldron.
  */
 public class BCauldronRecipe {
-	public static List<BCauldronRecipe> recipes = new ArrayList<>();
+	public static List<BCauldronRecipe> recipes = new TrackedList<>();
 	public static int numConfigRecipes;
-	public static List<RecipeItem> acceptedCustom = new ArrayList<>(); // All accepted custom and other items
+	public static List<RecipeItem> acceptedCustom = new TrackedList<>(); // All accepted custom and other items
 	public static Set<Material> acceptedSimple = new HashSet<>(); // All accepted simple items
 	public static Set<Material> acceptedMaterials = new HashSet<>(); // Fast cache for all accepted Materials
+	private static volatile RecipeSnapshot<BCauldronRecipe> snapshot; // The recipes and their index as other threads see them, see getSnapshot()
+	private static int changes; // Changes to recipes in the list that affect which recipe fits some ingredients, only on the main thread
 
 	private String name;
 	private List<RecipeItem> ingredients;
 	private PotionColor color;
-	private List<Tuple<Integer, Color>> particleColor = new ArrayList<>();
+	private final TrackedList<Tuple<Integer, Color>> particleColor = new TrackedList<>();
+	private ParticleGradient particleGradient; // Calculated from particleColor when first needed
+	private int gradientModCount = -1; // modCount of particleColor when the Gradient was calculated
 	private List<String> lore;
 	private int cmData; // Custom Model Data
 	private boolean saveInData; // If this recipe should be saved in data and loaded again when the server restarts. Applicable to non-config recipes
@@ -136,6 +141,23 @@ public class BCauldronRecipe {
 		return particleColor;
 	}
 
+	/**
+	 * The Particle Colors for each minute of cooking, calculated from the Particle Color List.
+	 * <p>Uses the default colors if there are none configured
+	 */
+	@NotNull
+	public ParticleGradient getParticleGradient() {
+		if (particleColor.isEmpty()) {
+			return ParticleGradient.DEFAULT;
+		}
+		// The List can be changed through getParticleColor()
+		if (particleGradient == null || gradientModCount != particleColor.getModCount()) {
+			particleGradient = new ParticleGradient(particleColor);
+			gradientModCount = particleColor.getModCount();
+		}
+		return particleGradient;
+	}
+
 	@Nullable
 	public List<String> getLore() {
 		return lore;
@@ -153,6 +175,7 @@ public class BCauldronRecipe {
 	 */
 	public void setIngredients(@NotNull List<RecipeItem> ingredients) {
 		this.ingredients = ingredients;
+		changes++;
 	}
 
 	public void setColor(@NotNull PotionColor color) {
@@ -224,7 +247,8 @@ public class BCauldronRecipe {
 			double mod = Math.pow(0.1, tooMuch);
 			match *= mod;
 		}
-		Brewery.getInstance().debugLog("Match for Cauldron Recipe " + name + ": " + match);
+		float result = match;
+		Brewery.getInstance().debugLog(DebugCategory.CAULDRONS, () -> "Match for Cauldron Recipe " + name + ": " + result);
 		return match;
 	}
 
@@ -286,6 +310,43 @@ public class BCauldronRecipe {
 		return recipes;
 	}
 
+	/**
+	 * Changes whenever CauldronRecipes are added, removed or get new ingredients.
+	 * <p>Changes every time on the main thread if the list of recipes was replaced, as changes can't be told then
+	 */
+	public static int getChangeCount() {
+		return getSnapshot().version;
+	}
+
+	/**
+	 * Get the CauldronRecipes that could match these ingredients, in the order of getAllRecipes().
+	 * <p>Recipes that are certainly missing some of their ingredients are left out
+	 *
+	 * @param ingredients The ingredients to find the recipes for
+	 * @return The recipes that may match the ingredients
+	 */
+	public static List<BCauldronRecipe> getCandidates(List<Ingredient> ingredients) {
+		return getSnapshot().ingredientIndex.getCandidates(ingredients);
+	}
+
+	/**
+	 * The recipes as they are now on the main thread, rebuilt if they changed.
+	 * <p>Other threads get the last Snapshot built on the main thread, as the list is only changed there
+	 */
+	private static RecipeSnapshot<BCauldronRecipe> getSnapshot() {
+		RecipeSnapshot<BCauldronRecipe> current = snapshot;
+		if (Brewery.getInstance().getServer().isPrimaryThread()) {
+			if (current == null || current.isOutdated(recipes, changes)) {
+				current = new RecipeSnapshot<>(recipes, BCauldronRecipe::getIngredients, changes);
+				snapshot = current;
+			}
+		} else if (current == null) {
+			// Not used on the main thread yet
+			return new RecipeSnapshot<>(Collections.emptyList(), BCauldronRecipe::getIngredients, changes);
+		}
+		return current;
+	}
+
 	/*public static boolean acceptItem(ItemStack item) {
 		if (acceptedMaterials.contains(item.getType())) {
 			// Extremely fast way to check for most items
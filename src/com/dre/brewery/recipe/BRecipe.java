@@ -15,19 +15,26 @@ import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
 /**
  * A Recipe used to Brew a Brewery Potion.
  */
 public class BRecipe {
 
-	private static List<BRecipe> recipes = new ArrayList<>();
+	private static final TrackedList<BRecipe> recipes = new TrackedList<>();
 	public static int numConfigRecipes; // The number of recipes in the list that are from config
+	private static volatile Snapshot snapshot; // The recipes and their indexes as other threads see them, see getSnapshot()
+	private static int changes; // Changes to recipes in the list that affect which recipe fits some ingredients, only on the main thread
 
 	// info
 	private String[] name;
@@ -479,8 +486,9 @@ public class BRecipe {
 	 * how many of a specific ingredient in the recipe
 	 */
 	public int amountOf(ItemStack item) {
+		MatchedItem matched = new MatchedItem(item);
 		for (RecipeItem rItem : ingredients) {
-			if (rItem.matches(item)) {
+			if (rItem.matches(matched)) {
 				return rItem.getAmount();
 			}
 		}
@@ -654,14 +662,17 @@ public class BRecipe {
 	 */
 	public void setIngredients(List<RecipeItem> ingredients) {
 		this.ingredients = ingredients;
+		changes++;
 	}
 
 	public void setCookingTime(int cookingTime) {
 		this.cookingTime = cookingTime;
+		changes++;
 	}
 
 	public void setDistillruns(byte distillruns) {
 		this.distillruns = distillruns;
+		changes++;
 	}
 
 	public void setDistillTime(int distillTime) {
@@ -670,10 +681,12 @@ public class BRecipe {
 
 	public void setWood(byte wood) {
 		this.wood = wood;
+		changes++;
 	}
 
 	public void setAge(int age) {
 		this.age = age;
+		changes++;
 	}
 
 	public void setColor(@NotNull PotionColor color) {
@@ -682,6 +695,7 @@ public class BRecipe {
 
 	public void setDifficulty(int difficulty) {
 		this.difficulty = difficulty;
+		changes++;
 	}
 
 	public void setAlcohol(int alcohol) {
@@ -743,6 +757,7 @@ public class BRecipe {
 		if (mainNameRecipe != null) {
 			return mainNameRecipe;
 		}
+		List<BRecipe> recipes = getSnapshot().recipes;
 		for (BRecipe recipe : recipes) {
 			if (recipe.getName(1).equalsIgnoreCase(name)) {
 				return recipe;
@@ -763,7 +778,12 @@ public class BRecipe {
 	 */
 	@Nullable
 	public static BRecipe get(String name) {
-		for (BRecipe recipe : recipes) {
+		Snapshot current = getSnapshot();
+		BRecipe indexed = current.byNameHash.get(nameHash(name));
+		if (indexed != null && indexed.getRecipeName().equalsIgnoreCase(name)) {
+			return indexed;
+		}
+		for (BRecipe recipe : current.recipes) {
 			if (recipe.getRecipeName().equalsIgnoreCase(name)) {
 				return recipe;
 			}
@@ -771,6 +791,101 @@ public class BRecipe {
 		return null;
 	}
 
+	/**
+	 * Hash of the recipe name that is the same for names that only differ in case.
+	 * <p>Stable between restarts, used to store the recipe of a Brew. Never 0 and at most 28 Bits, so it fits into 4 Bytes as VarInt
+	 */
+	public static int nameHash(String name) {
+		int hash = name.toLowerCase(Locale.ROOT).hashCode();
+		hash = (hash ^ (hash >>> 28)) & 0x0FFFFFFF;
+		return hash != 0 ? hash : 1;
+	}
+
+	/**
+	 * Check of the recipe name that does not depend on nameHash(), stored with it to verify the recipe when loading.
+	 * <p>Without it, a Brew of a removed recipe could become another recipe with the same hash
+	 */
+	public static byte nameCheck(String name) {
+		CRC32 crc = new CRC32();
+		crc.update(name.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+		return (byte) crc.getValue();
+	}
+
+	/**
+	 * Get the Recipe by the nameHash() of its name.
+	 * <p>Null if no recipe or multiple recipes have this hash, those have to be found by name
+	 */
+	@Nullable
+	public static BRecipe getByNameHash(int hash) {
+		return getSnapshot().byNameHash.get(hash);
+	}
+
+	/**
+	 * Changes whenever recipes are added, removed or changed in a way that affects which recipe fits some ingredients.
+	 * <p>Results of recipe matching are outdated once this changes, i.e. after a reload
+	 */
+	public static int getChangeCount() {
+		return getSnapshot().version;
+	}
+
+	/**
+	 * Get the recipes that could be brewed from these ingredients, in the order of getAllRecipes().
+	 * <p>Recipes that are certainly missing some of their ingredients are left out
+	 *
+	 * @param ingredients The ingredients to find the recipes for
+	 * @return The recipes that may match the ingredients
+	 */
+	public static List<BRecipe> getCandidates(List<Ingredient> ingredients) {
+		return getSnapshot().ingredientIndex.getCandidates(ingredients);
+	}
+
+	/**
+	 * Make changes to the recipes visible to other threads.
+	 * <p>Has to be called on the main thread before starting async tasks that use the recipes,
+	 * otherwise the changes are only seen once the recipes are next used on the main thread
+	 */
+	public static void publishChanges() {
+		getSnapshot();
+	}
+
+	/**
+	 * The recipes as they are now on the main thread, rebuilt if they changed.
+	 * <p>Other threads get the last Snapshot built on the main thread, as the list is only changed there
+	 */
+	private static Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (Brewery.getInstance().getServer().isPrimaryThread()) {
+			if (current == null || current.isOutdated(recipes, changes)) {
+				current = new Snapshot(recipes, changes);
+				snapshot = current;
+			}
+		} else if (current == null) {
+			// Not used on the main thread yet
+			return new Snapshot(Collections.emptyList(), changes);
+		}
+		return current;
+	}
+
+	/**
+	 * The recipes with their index by ingredients and by nameHash()
+	 */
+	private static final class Snapshot extends RecipeSnapshot<BRecipe> {
+		private final Map<Integer, BRecipe> byNameHash = new HashMap<>(); // null for hashes of multiple recipes
+
+		private Snapshot(List<BRecipe> list, int changes) {
+			super(list, BRecipe::getIngredients, changes);
+			for (BRecipe recipe : recipes) {
+				int hash = nameHash(recipe.getRecipeName());
+				if (byNameHash.containsKey(hash)) {
+					// Not unique, can't tell them apart by hash
+					byNameHash.put(hash, null);
+				} else {
+					byNameHash.put(hash, recipe);
+				}
+			}
+		}
+	}
+
 	/*public static void saveAddedRecipes(ConfigurationSection cfg) {
 		int i = 0;
 		for (BRecipe recipe : getAddedRecipes()) {
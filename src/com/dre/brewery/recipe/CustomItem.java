@@ -1,7 +1,7 @@
 package com.dre.brewery.recipe;
 
 import com.dre.brewery.Brewery;
-import org.bukkit.ChatColor;
+import com.dre.brewery.utility.BUtil;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -12,6 +12,8 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.logging.Level;
@@ -25,6 +27,7 @@ public class CustomItem extends RecipeItem implements Ingredient {
 	private Material mat;
 	private String name;
 	private List<String> lore;
+	private MatchData matchData; // Name and lore prepared for matching, created when first needed
 
 	public CustomItem() {
 	}
@@ -74,6 +77,12 @@ public class CustomItem extends RecipeItem implements Ingredient {
 		return l;
 	}
 
+	@Override
+	public Collection<Material> getRequiredMaterials() {
+		// Without Material, we also match items of any Material with our name and lore
+		return mat != null ? Collections.singletonList(mat) : null;
+	}
+
 	@Nullable
 	public Material getMaterial() {
 		return mat;
@@ -83,6 +92,18 @@ public class CustomItem extends RecipeItem implements Ingredient {
 		this.mat = mat;
 	}
 
+	/**
+	 * Name and lore prepared for matching, created once as this is immutable in recipes
+	 */
+	MatchData getMatchData() {
+		MatchData data = matchData;
+		if (data == null) {
+			data = new MatchData(name, lore);
+			matchData = data;
+		}
+		return data;
+	}
+
 	@Nullable
 	public String getName() {
 		return name;
@@ -90,6 +111,7 @@ public class CustomItem extends RecipeItem implements Ingredient {
 
 	protected void setName(String name) {
 		this.name = name;
+		matchData = null;
 	}
 
 	@Nullable
@@ -99,6 +121,7 @@ public class CustomItem extends RecipeItem implements Ingredient {
 
 	protected void setLore(List<String> lore) {
 		this.lore = lore;
+		matchData = null;
 	}
 
 	@NotNull
@@ -128,8 +151,8 @@ public class CustomItem extends RecipeItem implements Ingredient {
 				// If the other is a CustomItem as well and not Similar to ours, it might have more data and we still match
 				CustomItem other = ((CustomItem) rItem);
 				if (mat == null || mat == other.mat) {
-					if (!hasName() || (other.name != null && name.equalsIgnoreCase(other.name))) {
-						return !hasLore() || lore == other.lore || (other.hasLore() && matchLore(other.lore));
+					if (!hasName() || (other.name != null && getMatchData().name.equals(other.getMatchData().name))) {
+						return !hasLore() || lore == other.lore || (other.hasLore() && matchLore(other.getMatchData()));
 					}
 				}
 			}
@@ -139,30 +162,35 @@ public class CustomItem extends RecipeItem implements Ingredient {
 
 	@Override
 	public boolean matches(ItemStack item) {
+		return matches(new MatchedItem(item));
+	}
+
+	@Override
+	public boolean matches(MatchedItem matched) {
 		if (mat != null) {
-			if (item.getType() != mat) {
+			if (matched.getItem().getType() != mat) {
 				return false;
 			}
 		}
 		if (name == null && !hasLore()) {
 			return true;
 		}
-		if (!item.hasItemMeta()) {
+		if (matched.getMeta() == null) {
 			return false;
 		}
-		ItemMeta meta = item.getItemMeta();
-		assert meta != null;
 		if (name != null) {
-			if (!meta.hasDisplayName() || !name.equalsIgnoreCase(meta.getDisplayName())) {
+			String usedName = matched.getFoldedName();
+			if (usedName == null || !getMatchData().name.equals(usedName)) {
 				return false;
 			}
 		}
 
 		if (hasLore()) {
-			if (!meta.hasLore()) {
+			MatchData usedLore = matched.getLoreData();
+			if (usedLore == null) {
 				return false;
 			}
-			return matchLore(meta.getLore());
+			return matchLore(usedLore);
 		}
 		return true;
 	}
@@ -175,17 +203,21 @@ public class CustomItem extends RecipeItem implements Ingredient {
 	 * @return True if the given lore contains our lore consecutively
 	 */
 	public boolean matchLore(List<String> usedLore) {
+		if (lore == null) return true;
+		return matchLore(new MatchData(null, usedLore));
+	}
+
+	private boolean matchLore(MatchData used) {
 		if (lore == null) return true;
 		int lastIndex = 0;
 		boolean foundFirst = false;
-		for (String line : lore) {
+		for (String line : getMatchData().lore) {
 			do {
-				if (lastIndex == usedLore.size()) {
+				if (lastIndex == used.lore.length) {
 					// There is more in lore than in usedLore, bad
 					return false;
 				}
-				String usedLine = usedLore.get(lastIndex);
-				if (line.equalsIgnoreCase(usedLine) || line.equalsIgnoreCase(ChatColor.stripColor(usedLine))) {
+				if (used.loreLineEquals(lastIndex, line)) {
 					// If the line is correct, we have found our first and we want all consecutive lines to also equal
 					foundFirst = true;
 				} else if (foundFirst) {
@@ -261,17 +293,36 @@ public class CustomItem extends RecipeItem implements Ingredient {
 		}
 	}
 
+	@Override
+	public void saveCompactTo(DataOutputStream out) throws IOException {
+		out.writeUTF("CI");
+		out.writeBoolean(mat != null);
+		if (mat != null) {
+			BUtil.writeMaterial(out, mat);
+		}
+		out.writeBoolean(name != null);
+		if (name != null) {
+			out.writeUTF(name);
+		}
+		int size = lore != null ? Math.min(lore.size(), Short.MAX_VALUE) : 0;
+		BUtil.writeVarInt(out, size);
+		for (int i = 0; i < size; i++) {
+			out.writeUTF(lore.get(i));
+		}
+	}
+
 	public static CustomItem loadFrom(ItemLoader loader) {
 		try {
 			DataInputStream in = loader.getInputStream();
+			boolean compact = loader.getVersion() >= 3;
 			CustomItem item = new CustomItem();
 			if (in.readBoolean()) {
-				item.mat = Material.getMaterial(in.readUTF());
+				item.mat = compact ? BUtil.readMaterial(in) : Material.getMaterial(in.readUTF());
 			}
 			if (in.readBoolean()) {
 				item.name = in.readUTF();
 			}
-			short size = in.readShort();
+			short size = compact ? (short) BUtil.readVarInt(in) : in.readShort();
 			if (size > 0) {
 				item.lore = new ArrayList<>(size);
 				for (short i = 0; i < size; i++) {
@@ -1,6 +1,5 @@
 package com.dre.brewery.recipe;
 
-import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -8,8 +7,13 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Custom Item that matches any one of the given info.
@@ -20,6 +24,7 @@ public class CustomMatchAnyItem extends RecipeItem {
 	private List<Material> materials;
 	private List<String> names;
 	private List<String> lore;
+	private Compiled compiled; // Prepared for matching, created when first needed
 
 
 	@Override
@@ -41,8 +46,18 @@ public class CustomMatchAnyItem extends RecipeItem {
 		return materials;
 	}
 
+	@Override
+	public Collection<Material> getRequiredMaterials() {
+		// Names or lore would also match items of other Materials
+		if (hasMaterials() && !hasNames() && !hasLore()) {
+			return materials;
+		}
+		return null;
+	}
+
 	protected void setMaterials(List<Material> materials) {
 		this.materials = materials;
+		compiled = null;
 	}
 
 	@Nullable
@@ -52,6 +67,7 @@ public class CustomMatchAnyItem extends RecipeItem {
 
 	protected void setNames(List<String> names) {
 		this.names = names;
+		compiled = null;
 	}
 
 	@Nullable
@@ -61,6 +77,19 @@ public class CustomMatchAnyItem extends RecipeItem {
 
 	protected void setLore(List<String> lore) {
 		this.lore = lore;
+		compiled = null;
+	}
+
+	/**
+	 * Materials, names and lore prepared for matching, created once as this is immutable in recipes
+	 */
+	private Compiled getCompiled() {
+		Compiled c = compiled;
+		if (c == null) {
+			c = new Compiled(materials, names, lore);
+			compiled = c;
+		}
+		return c;
 	}
 
 	@NotNull
@@ -109,12 +138,7 @@ public class CustomMatchAnyItem extends RecipeItem {
 		if (!hasMaterials()) return null;
 
 		Material usedMat = item.getType();
-		for (Material mat : materials) {
-			if (usedMat == mat) {
-				return mat;
-			}
-		}
-		return null;
+		return getCompiled().materials.contains(usedMat) ? usedMat : null;
 	}
 
 	public String getNameMatch(ItemStack item) {
@@ -130,14 +154,9 @@ public class CustomMatchAnyItem extends RecipeItem {
 	}
 
 	public String getNameMatch(String usedName) {
-		if (!hasNames()) return null;
+		if (!hasNames() || usedName == null) return null;
 
-		for (String name : names) {
-			if (name.equalsIgnoreCase(usedName)) {
-				return name;
-			}
-		}
-		return null;
+		return getCompiled().names.get(MatchData.fold(usedName));
 	}
 
 	public String getLoreMatch(ItemStack item) {
@@ -155,10 +174,15 @@ public class CustomMatchAnyItem extends RecipeItem {
 	public String getLoreMatch(List<String> usedLore) {
 		if (!hasLore()) return null;
 
-		for (String line : this.lore) {
-			for (String usedLine : usedLore) {
-				if (line.equalsIgnoreCase(usedLine) || line.equalsIgnoreCase(ChatColor.stripColor(usedLine))) {
-					return line;
+		return getLoreMatch(new MatchData(null, usedLore));
+	}
+
+	private String getLoreMatch(MatchData used) {
+		String[] foldedLore = getCompiled().lore;
+		for (int i = 0; i < foldedLore.length; i++) {
+			for (int u = 0; u < used.lore.length; u++) {
+				if (used.loreLineEquals(u, foldedLore[i])) {
+					return lore.get(i);
 				}
 			}
 		}
@@ -167,13 +191,25 @@ public class CustomMatchAnyItem extends RecipeItem {
 
 	@Override
 	public boolean matches(ItemStack item) {
-		if (getMaterialMatch(item) != null) {
+		return matches(new MatchedItem(item));
+	}
+
+	@Override
+	public boolean matches(MatchedItem matched) {
+		if (getMaterialMatch(matched.getItem()) != null) {
 			return true;
 		}
-		if (getNameMatch(item) != null) {
-			return true;
+		if (hasNames()) {
+			String usedName = matched.getFoldedName();
+			if (usedName != null && getCompiled().names.containsKey(usedName)) {
+				return true;
+			}
 		}
-		return getLoreMatch(item) != null;
+		if (hasLore()) {
+			MatchData usedLore = matched.getLoreData();
+			return usedLore != null && getLoreMatch(usedLore) != null;
+		}
+		return false;
 	}
 
 	@Override
@@ -183,22 +219,22 @@ public class CustomMatchAnyItem extends RecipeItem {
 			// If the custom item has any of our data, we match
 			CustomItem ci = ((CustomItem) ingredient);
 			if (hasMaterials() && ci.hasMaterials()) {
-				if (materials.contains(ci.getMaterial())) {
+				if (getCompiled().materials.contains(ci.getMaterial())) {
 					return true;
 				}
 			}
 			if (hasNames() && ci.hasName()) {
-				if (getNameMatch(ci.getName()) != null) {
+				if (getCompiled().names.containsKey(ci.getMatchData().name)) {
 					return true;
 				}
 			}
 			if (hasLore() && ci.hasLore()) {
-				return getLoreMatch(ci.getLore()) != null;
+				return getLoreMatch(ci.getMatchData()) != null;
 			}
 		} else if (ingredient instanceof SimpleItem) {
 			// If we contain the Material of the Simple Item, we match
 			SimpleItem si = (SimpleItem) ingredient;
-			return hasMaterials() && materials.contains(si.getMaterial());
+			return hasMaterials() && getCompiled().materials.contains(si.getMaterial());
 		}
 		return false;
 	}
@@ -228,4 +264,29 @@ public class CustomMatchAnyItem extends RecipeItem {
 			", loresize: " + (lore != null ? lore.size() : 0) +
 			'}';
 	}
+
+	private static class Compiled {
+		private final Set<Material> materials = new HashSet<>();
+		private final Map<String, String> names = new HashMap<>(); // The first of our names for each folded name
+		private final String[] lore;
+
+		private Compiled(@Nullable List<Material> materials, @Nullable List<String> names, @Nullable List<String> lore) {
+			if (materials != null) {
+				this.materials.addAll(materials);
+			}
+			if (names != null) {
+				for (String name : names) {
+					this.names.putIfAbsent(MatchData.fold(name), name);
+				}
+			}
+			if (lore != null) {
+				this.lore = new String[lore.size()];
+				for (int i = 0; i < this.lore.length; i++) {
+					this.lore[i] = MatchData.fold(lore.get(i));
+				}
+			} else {
+				this.lore = MatchData.EMPTY;
+			}
+		}
+	}
 }
@@ -26,6 +26,19 @@ public interface Ingredient {
 	 */
 	void saveTo(DataOutputStream out) throws IOException;
 
+	/**
+	 * Saves this Ingredient to the DataOutputStream in the compact format used since Brew data version 3.
+	 * <p>Just like in saveTo, the first data HAS to be storing the SaveID.
+	 * The Item Loader can use loader.getVersion() to tell which of the two formats it is reading.
+	 * <p>Saves with saveTo if not overridden
+	 *
+	 * @param out The outputstream to write to
+	 * @throws IOException Any IOException
+	 */
+	default void saveCompactTo(DataOutputStream out) throws IOException {
+		saveTo(out);
+	}
+
 	int getAmount();
 
 	void setAmount(int amount);
@@ -38,6 +51,16 @@ public interface Ingredient {
 	 */
 	boolean matches(ItemStack item);
 
+	/**
+	 * Same as matches(ItemStack), with the Item prepared once for matching against many Ingredients
+	 *
+	 * @param item The given Item to match
+	 * @return true if all required data is contained on the item
+	 */
+	default boolean matches(MatchedItem item) {
+		return matches(item.getItem());
+	}
+
 	/*
 	 * Does this Item match the given RecipeItem.
 	 * <p>An IngredientItem matches a RecipeItem if all required info of the RecipeItem are fulfilled on this IngredientItem
@@ -0,0 +1,103 @@
+package com.dre.brewery.recipe;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Index of the Recipes by the Materials of their Ingredients.
+ * <p>Finds the few Recipes that some Ingredients could be brewed into, without matching every RecipeItem of every Recipe.
+ * <p>Immutable once created, part of a RecipeSnapshot
+ */
+class IngredientIndex<R> {
+
+	private final List<R> recipes;
+	private final Function<R, List<RecipeItem>> getIngredients;
+	private final Map<Material, BitSet> byMaterial = new EnumMap<>(Material.class);
+	private final BitSet unindexed = new BitSet(); // Recipes without any required Material, always candidates
+	private final List<List<Collection<Material>>> required = new ArrayList<>(); // For each Recipe, the required Materials of its RecipeItems
+
+	/**
+	 * @param recipes The Recipes to index, must not change afterwards
+	 */
+	IngredientIndex(List<R> recipes, Function<R, List<RecipeItem>> getIngredients) {
+		this.recipes = recipes;
+		this.getIngredients = getIngredients;
+		for (int i = 0; i < recipes.size(); i++) {
+			List<Collection<Material>> req = new ArrayList<>();
+			for (RecipeItem rItem : getIngredients.apply(recipes.get(i))) {
+				Collection<Material> materials = rItem.getRequiredMaterials();
+				if (materials == null) continue;
+				req.add(materials);
+				for (Material mat : materials) {
+					byMaterial.computeIfAbsent(mat, m -> new BitSet()).set(i);
+				}
+			}
+			if (req.isEmpty()) {
+				unindexed.set(i);
+			}
+			required.add(req);
+		}
+	}
+
+	/**
+	 * Get the Recipes that have all their required Materials in the Ingredients, in the order of the Recipe list.
+	 * <p>Other Recipes would be missing Ingredients, so they could never be brewed from these
+	 */
+	List<R> getCandidates(List<Ingredient> ingredients) {
+		EnumSet<Material> present = EnumSet.noneOf(Material.class);
+		for (Ingredient ingredient : ingredients) {
+			// Only these can match RecipeItems that require Materials
+			Material mat = null;
+			if (ingredient instanceof SimpleItem) {
+				mat = ((SimpleItem) ingredient).getMaterial();
+			} else if (ingredient instanceof CustomItem) {
+				mat = ((CustomItem) ingredient).getMaterial();
+			}
+			if (mat != null) {
+				present.add(mat);
+			}
+		}
+
+		BitSet found = (BitSet) unindexed.clone();
+		for (Material mat : present) {
+			BitSet withMat = byMaterial.get(mat);
+			if (withMat != null) {
+				found.or(withMat);
+			}
+		}
+
+		List<R> candidates = new ArrayList<>();
+		for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+			R recipe = recipes.get(i);
+			if (getIngredients.apply(recipe).size() > ingredients.size()) continue;
+			if (hasAll(required.get(i), present)) {
+				candidates.add(recipe);
+			}
+		}
+		return candidates;
+	}
+
+	private static boolean hasAll(List<Collection<Material>> req, EnumSet<Material> present) {
+		for (Collection<Material> materials : req) {
+			boolean any = false;
+			for (Material mat : materials) {
+				if (present.contains(mat)) {
+					any = true;
+					break;
+				}
+			}
+			if (!any) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,65 @@
+package com.dre.brewery.recipe;
+
+import org.bukkit.ChatColor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Name and Lore of an item, prepared for matching while ignoring case.
+ * <p>All Strings are folded once, so that two of them are equal ignoring case exactly if their folded forms are equal.
+ * Matching is then only comparing Strings, without folding or stripping colors again for every comparison
+ */
+final class MatchData {
+
+	static final String[] EMPTY = new String[0];
+
+	@Nullable
+	final String name;
+	final String[] lore;
+	final String[] strippedLore; // The lore without colors, each line at the same index as in lore
+
+	MatchData(@Nullable String name, @Nullable List<String> lore) {
+		this.name = name != null ? fold(name) : null;
+		if (lore == null || lore.isEmpty()) {
+			this.lore = EMPTY;
+			this.strippedLore = EMPTY;
+		} else {
+			this.lore = new String[lore.size()];
+			this.strippedLore = new String[lore.size()];
+			for (int i = 0; i < this.lore.length; i++) {
+				String line = lore.get(i);
+				this.lore[i] = fold(line);
+				String stripped = ChatColor.stripColor(line);
+				this.strippedLore[i] = stripped != null ? fold(stripped) : this.lore[i];
+			}
+		}
+	}
+
+	/**
+	 * Fold the case of the String, the same way String.equalsIgnoreCase() compares each character
+	 */
+	static String fold(String s) {
+		StringBuilder folded = null;
+		for (int i = 0; i < s.length(); ) {
+			int c = s.codePointAt(i);
+			int f = Character.toLowerCase(Character.toUpperCase(c));
+			if (f != c && folded == null) {
+				folded = new StringBuilder(s.length());
+				folded.append(s, 0, i);
+			}
+			if (folded != null) {
+				folded.appendCodePoint(f);
+			}
+			i += Character.charCount(c);
+		}
+		return folded != null ? folded.toString() : s;
+	}
+
+	/**
+	 * If the line, folded by fold(), is equal to the used lore line at this index, with or without colors
+	 */
+	boolean loreLineEquals(int index, String foldedLine) {
+		return foldedLine.equals(lore[index]) || foldedLine.equals(strippedLore[index]);
+	}
+}
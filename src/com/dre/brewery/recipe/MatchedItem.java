@@ -0,0 +1,70 @@
+package com.dre.brewery.recipe;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An ItemStack that is matched against many RecipeItems or Ingredients.
+ * <p>Its Meta, and its name and lore prepared for matching, are only read once when first needed
+ * and then reused for all further matches.
+ * <p>Only for one pass of matching, as changes to the ItemStack are not seen
+ */
+public final class MatchedItem {
+
+	private final ItemStack item;
+	private ItemMeta meta;
+	private boolean metaRead;
+	private String name;
+	private boolean nameRead;
+	private MatchData lore;
+	private boolean loreRead;
+
+	public MatchedItem(@NotNull ItemStack item) {
+		this.item = item;
+	}
+
+	@NotNull
+	public ItemStack getItem() {
+		return item;
+	}
+
+	/**
+	 * The Meta of the Item, null if it has none
+	 */
+	@Nullable
+	public ItemMeta getMeta() {
+		if (!metaRead) {
+			meta = item.hasItemMeta() ? item.getItemMeta() : null;
+			metaRead = true;
+		}
+		return meta;
+	}
+
+	/**
+	 * The display name folded for matching, null if it has none
+	 */
+	@Nullable
+	String getFoldedName() {
+		if (!nameRead) {
+			ItemMeta meta = getMeta();
+			name = meta != null && meta.hasDisplayName() ? MatchData.fold(meta.getDisplayName()) : null;
+			nameRead = true;
+		}
+		return name;
+	}
+
+	/**
+	 * The lore prepared for matching, null if it has none
+	 */
+	@Nullable
+	MatchData getLoreData() {
+		if (!loreRead) {
+			ItemMeta meta = getMeta();
+			lore = meta != null && meta.hasLore() ? new MatchData(null, meta.getLore()) : null;
+			loreRead = true;
+		}
+		return lore;
+	}
+}
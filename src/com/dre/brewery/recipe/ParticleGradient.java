@@ -0,0 +1,113 @@
+package com.dre.brewery.recipe;
+
+import com.dre.brewery.utility.BUtil;
+import com.dre.brewery.utility.Tuple;
+import org.bukkit.Color;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Particle Colors of a cooking Cauldron for each minute, calculated once from the configured colors of a Cauldron Recipe.
+ * <p>After the last configured minute, and the fade to Gray for a single color, the color doesn't change anymore.
+ */
+public final class ParticleGradient {
+
+	public static final Color START = Color.fromRGB(153, 221, 255); // Bright Blue
+	public static final Color GRAY = Color.fromRGB(138, 153, 168); // Dark Teal, Gray
+	private static final int MAX_TABLE = 1440; // A day of cooking, calculate later minutes when needed
+
+	/**
+	 * The Gradient used if there is no Cauldron Recipe or it has no colors configured
+	 */
+	public static final ParticleGradient DEFAULT = new ParticleGradient(Collections.singletonList(new Tuple<>(10, Color.fromRGB(77, 166, 255)))); // Dark Aqua kind of Blue
+
+	private final List<Tuple<Integer, Color>> colorList;
+	private final Color[] table;
+	private final boolean complete; // If the color stays the same after the table
+
+	/**
+	 * @param colorList Minutes and the color at that minute, should not be empty
+	 */
+	public ParticleGradient(List<Tuple<Integer, Color>> colorList) {
+		this.colorList = new ArrayList<>(colorList);
+		int end = 1;
+		for (Tuple<Integer, Color> color : colorList) {
+			end = Math.max(end, color.a());
+		}
+		if (colorList.size() == 1) {
+			// Going towards Gray after the only color
+			end = Math.max(end, (int) (colorList.get(0).a() * 2.6f));
+		}
+		complete = end <= MAX_TABLE;
+		table = new Color[Math.min(end, MAX_TABLE) + 1];
+		table[0] = START;
+		for (int state = 1; state < table.length; state++) {
+			table[state] = calcColor(colorList, state);
+		}
+	}
+
+	/**
+	 * Get the Particle Color for a Cauldron that has been cooking for this many minutes
+	 */
+	@NotNull
+	public Color getColor(int state) {
+		if (state < 1) {
+			return START;
+		}
+		if (state < table.length) {
+			return table[state];
+		}
+		if (complete) {
+			// Past the end of the gradient, the color stays the same
+			return table[table.length - 1];
+		}
+		return calcColor(colorList, state);
+	}
+
+	private static Color calcColor(List<Tuple<Integer, Color>> colorList, int state) {
+		int index = 0;
+		while (index < colorList.size() - 1 && colorList.get(index).a() < state) {
+			// Find the first index where the colorList Minute is higher than the state
+			index++;
+		}
+
+		int minute = colorList.get(index).a();
+		if (minute > state) {
+			// going towards the minute
+			int prevPos;
+			Color prevColor;
+			if (index > 0) {
+				// has previous colours
+				prevPos = colorList.get(index - 1).a();
+				prevColor = colorList.get(index - 1).b();
+			} else {
+				prevPos = 0;
+				prevColor = START;
+			}
+
+			return BUtil.weightedMixColor(prevColor, prevPos, state, colorList.get(index).b(), minute);
+		} else if (minute == state) {
+			// reached the minute
+			return colorList.get(index).b();
+		} else {
+			// passed the last minute configured
+			if (index > 0) {
+				// We have more than one color, just use the last one
+				return colorList.get(index).b();
+			} else {
+				// Only have one color, go towards a Gray
+				int nextPos = (int) (minute * 2.6f);
+
+				if (nextPos <= state) {
+					// We are past the next color (Gray) as well, keep using it
+					return GRAY;
+				} else {
+					return BUtil.weightedMixColor(colorList.get(index).b(), minute, state, GRAY, nextPos);
+				}
+			}
+		}
+	}
+}
@@ -10,6 +10,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -37,6 +38,16 @@ public abstract class RecipeItem implements Cloneable {
 	 */
 	public abstract boolean matches(ItemStack item);
 
+	/**
+	 * Same as matches(ItemStack), with the Item prepared once for matching against many RecipeItems
+	 *
+	 * @param item The Item for comparison
+	 * @return True if the given item matches this recipeItem
+	 */
+	public boolean matches(MatchedItem item) {
+		return matches(item.getItem());
+	}
+
 	/**
 	 * Does this Item match the given Ingredient?
 	 * <p>A RecipeItem matches an Ingredient if all required info of the RecipeItem are fulfilled on the Ingredient
@@ -75,6 +86,17 @@ public abstract class RecipeItem implements Cloneable {
 	@Nullable
 	public abstract List<Material> getMaterials();
 
+	/**
+	 * Materials of which an Ingredient or ItemStack has to have one, to be able to match this recipeItem.
+	 * <p>Used to quickly find the recipes that could use some ingredients, and the custom items an item could be
+	 *
+	 * @return The required Materials, null if this could also match Ingredients with other or no Materials
+	 */
+	@Nullable
+	public Collection<Material> getRequiredMaterials() {
+		return null;
+	}
+
 	/**
 	 * @return The Id this Item uses in the config in the custom-items section
 	 */
@@ -110,6 +132,10 @@ public abstract class RecipeItem implements Cloneable {
 		immutable = true;
 	}
 
+	public boolean isImmutable() {
+		return immutable;
+	}
+
 	/**
 	 * Gets a shallow clone of this RecipeItem whose fields like amount can be changed.
 	 *
@@ -138,12 +164,22 @@ public abstract class RecipeItem implements Cloneable {
 	@Nullable
 	@Contract("_, true -> !null")
 	public static RecipeItem getMatchingRecipeItem(ItemStack item, boolean acceptAll) {
+		return getMatchingRecipeItem(new MatchedItem(item), acceptAll);
+	}
+
+	/**
+	 * Same as getMatchingRecipeItem(ItemStack, boolean), with the Item already prepared for matching
+	 */
+	@Nullable
+	@Contract("_, true -> !null")
+	public static RecipeItem getMatchingRecipeItem(MatchedItem matched, boolean acceptAll) {
+		ItemStack item = matched.getItem();
 		RecipeItem rItem = null;
 		boolean multiMatch = false;
-		for (RecipeItem ri : BCauldronRecipe.acceptedCustom) {
+		for (RecipeItem ri : AcceptedCustomIndex.getCandidates(item.getType())) {
 			// If we already have a multi match, only check if there is a PluginItem that matches more strictly
 			if (!multiMatch || (ri instanceof PluginItem)) {
-				if (ri.matches(item)) {
+				if (ri.matches(matched)) {
 					// If we match a plugin item, thats a very strict match, so immediately return it
 					if (ri instanceof PluginItem) {
 						return ri;
@@ -0,0 +1,48 @@
+package com.dre.brewery.recipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The Recipes of a list and their Index at one point in time.
+ * <p>Immutable, built on the main thread whenever the list changed. Other threads only use the last one built,
+ * so they never read the list while it is being changed
+ */
+class RecipeSnapshot<R> {
+
+	private static final AtomicInteger versions = new AtomicInteger();
+
+	final int version; // Different for every Snapshot
+	final List<R> recipes;
+	final IngredientIndex<R> ingredientIndex;
+	private final List<R> list; // The list this was built from
+	private final int modCount;
+	private final int changes;
+
+	/**
+	 * @param list The list of Recipes, only read while building
+	 * @param changes Count of changes to the Recipes in the list that affect which Recipe fits some Ingredients
+	 */
+	RecipeSnapshot(List<R> list, Function<R, List<RecipeItem>> getIngredients, int changes) {
+		this.list = list;
+		modCount = list instanceof TrackedList ? ((TrackedList<R>) list).getModCount() : -1;
+		this.changes = changes;
+		recipes = Collections.unmodifiableList(new ArrayList<>(list));
+		ingredientIndex = new IngredientIndex<>(recipes, getIngredients);
+		version = versions.incrementAndGet();
+	}
+
+	/**
+	 * If the list or the Recipes in it changed since this was built.
+	 * <p>Always true for lists that don't tell when they change
+	 */
+	boolean isOutdated(List<R> list, int changes) {
+		if (list != this.list || !(list instanceof TrackedList)) {
+			return true;
+		}
+		return ((TrackedList<R>) list).getModCount() != modCount || changes != this.changes;
+	}
+}
@@ -1,6 +1,7 @@
 package com.dre.brewery.recipe;
 
 import com.dre.brewery.Brewery;
+import com.dre.brewery.utility.BUtil;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
@@ -9,6 +10,8 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.logging.Level;
@@ -47,6 +50,11 @@ public class SimpleItem extends RecipeItem implements Ingredient {
 		return l;
 	}
 
+	@Override
+	public Collection<Material> getRequiredMaterials() {
+		return mat != null ? Collections.singletonList(mat) : null;
+	}
+
 	@NotNull
 	@Override
 	public Ingredient toIngredient(ItemStack forItem) {
@@ -129,11 +137,25 @@ public class SimpleItem extends RecipeItem implements Ingredient {
 		out.writeShort(dur);
 	}
 
+	@Override
+	public void saveCompactTo(DataOutputStream out) throws IOException {
+		out.writeUTF("SI");
+		BUtil.writeMaterial(out, mat);
+		BUtil.writeVarInt(out, dur & 0xFFFF);
+	}
+
 	public static SimpleItem loadFrom(ItemLoader loader) {
 		try {
 			DataInputStream in = loader.getInputStream();
-			Material mat = Material.getMaterial(in.readUTF());
-			short dur = in.readShort();
+			Material mat;
+			short dur;
+			if (loader.getVersion() >= 3) {
+				mat = BUtil.readMaterial(in);
+				dur = (short) BUtil.readVarInt(in);
+			} else {
+				mat = Material.getMaterial(in.readUTF());
+				dur = in.readShort();
+			}
 			if (mat != null) {
 				SimpleItem item = new SimpleItem(mat, dur);
 				return item;
@@ -0,0 +1,23 @@
+package com.dre.brewery.recipe;
+
+import java.util.ArrayList;
+
+/**
+ * List that tells when it was changed, so indexes built from it know when to rebuild.
+ */
+class TrackedList<E> extends ArrayList<E> {
+
+	/**
+	 * Changes whenever elements are added, removed or replaced
+	 */
+	int getModCount() {
+		return modCount;
+	}
+
+	@Override
+	public E set(int index, E element) {
+		// Replacing an element has to invalidate the indexes as well
+		modCount++;
+		return super.set(index, element);
+	}
+}
@@ -348,6 +348,64 @@ public class BUtil {
 		return worldName;
 	}
 
+	/**
+	 * Write an int in as few bytes as needed, 7 bits per byte.
+	 * <p>Small positive values take one byte, negative values always take five, use writeSignedVarInt for those
+	 */
+	public static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * Read an int written by writeVarInt
+	 */
+	public static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("VarInt too long");
+	}
+
+	/**
+	 * Write an int with zigzag encoding, so small negative values also take only one or two bytes
+	 */
+	public static void writeSignedVarInt(DataOutput out, int value) throws IOException {
+		writeVarInt(out, (value << 1) ^ (value >> 31));
+	}
+
+	/**
+	 * Read an int written by writeSignedVarInt
+	 */
+	public static int readSignedVarInt(DataInput in) throws IOException {
+		int zigzag = readVarInt(in);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	/**
+	 * Write a Material by its name.
+	 * <p>Unlike the ordinal or a hash this identifies the same Material in all Minecraft versions
+	 */
+	public static void writeMaterial(DataOutput out, Material material) throws IOException {
+		out.writeUTF(material.name());
+	}
+
+	/**
+	 * Read a Material written by writeMaterial, null if it does not exist in this version
+	 */
+	@Nullable
+	public static Material readMaterial(DataInput in) throws IOException {
+		return Material.getMaterial(in.readUTF());
+	}
+
 	@SuppressWarnings("ResultOfMethodCallIgnored")
 	public static void saveFile(InputStream in, File dest, String name, boolean overwrite) throws IOException {
 		if (in == null) return;
@@ -0,0 +1,92 @@
+package com.dre.brewery.utility;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Copies of the Blocks in a small area of a World.
+ * <p>The copies have to be taken on the main thread, reading them is then safe from any thread.
+ * Blocks outside of the area read as air
+ */
+public class BlockAreaReader implements BlockReader {
+
+	private final int minX, minY, minZ;
+	private final int sizeX, sizeY, sizeZ;
+	private final Material[] types;
+	private final boolean[] invertedStairs;
+
+	/**
+	 * Copy all Blocks from min to max, inclusive.
+	 * <p>Has to be called on the main thread
+	 */
+	public BlockAreaReader(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		sizeX = maxX - minX + 1;
+		sizeY = maxY - minY + 1;
+		sizeZ = maxZ - minZ + 1;
+		types = new Material[sizeX * sizeY * sizeZ];
+		invertedStairs = new boolean[types.length];
+		int i = 0;
+		for (int x = minX; x <= maxX; x++) {
+			for (int y = minY; y <= maxY; y++) {
+				for (int z = minZ; z <= maxZ; z++) {
+					Block block = world.getBlockAt(x, y, z);
+					Material type = block.getType();
+					types[i] = type;
+					// Only Stairs need their data, to tell if they are upside down
+					invertedStairs[i] = LegacyUtil.isWoodStairs(type) && LegacyUtil.areStairsInverted(block);
+					i++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copy the Blocks inside the Bounds, and the Block at x, y, z with the ones next to it on the same level.
+	 * <p>That is all a Barrel with its spigot at x, y, z reads when it is checked, as long as the Bounds are right.
+	 * <p>Has to be called on the main thread
+	 *
+	 * @return null if one of the Chunks of the area is not loaded
+	 */
+	@Nullable
+	public static BlockAreaReader around(World world, int x, int y, int z, BoundingBox bounds) {
+		int minX = Math.min(bounds.getMinX(), x - 1);
+		int minZ = Math.min(bounds.getMinZ(), z - 1);
+		int maxX = Math.max(bounds.getMaxX(), x + 1);
+		int maxZ = Math.max(bounds.getMaxZ(), z + 1);
+		for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+			for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+				if (!world.isChunkLoaded(cx, cz)) {
+					return null;
+				}
+			}
+		}
+		return new BlockAreaReader(world, minX, Math.min(bounds.getMinY(), y), minZ, maxX, Math.max(bounds.getMaxY(), y), maxZ);
+	}
+
+	private int index(int x, int y, int z) {
+		x -= minX;
+		y -= minY;
+		z -= minZ;
+		if (x < 0 || x >= sizeX || y < 0 || y >= sizeY || z < 0 || z >= sizeZ) {
+			return -1;
+		}
+		return (x * sizeY + y) * sizeZ + z;
+	}
+
+	@Override
+	public Material getType(int x, int y, int z) {
+		int i = index(x, y, z);
+		return i < 0 ? Material.AIR : types[i];
+	}
+
+	@Override
+	public boolean areStairsInverted(int x, int y, int z) {
+		int i = index(x, y, z);
+		return i >= 0 && invertedStairs[i];
+	}
+}
@@ -0,0 +1,17 @@
+package com.dre.brewery.utility;
+
+import org.bukkit.Material;
+
+/**
+ * Read access to the Blocks of a World by their coordinates.
+ * <p>Lets the same checks run on the live World or on ChunkSnapshots off the main thread
+ */
+public interface BlockReader {
+
+	Material getType(int x, int y, int z);
+
+	/**
+	 * If the Block at this Location is a Stairs Block that is upside down
+	 */
+	boolean areStairsInverted(int x, int y, int z);
+}
@@ -28,6 +28,30 @@ public class BoundingBox {
 		return contains(block.getX(), block.getY(), block.getZ());
 	}
 
+	public int getMinX() {
+		return x1;
+	}
+
+	public int getMinY() {
+		return y1;
+	}
+
+	public int getMinZ() {
+		return z1;
+	}
+
+	public int getMaxX() {
+		return x2;
+	}
+
+	public int getMaxY() {
+		return y2;
+	}
+
+	public int getMaxZ() {
+		return z2;
+	}
+
 	public long area() {
 		return ((long) (x2 - x1 + 1)) * ((long) (y2 - y1 + 1)) * ((long) (z2 - z1 + 1));
 	}
@@ -0,0 +1,28 @@
+package com.dre.brewery.utility;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Categories of debug messages, each can be enabled on its own with the 'debugCategories' config option.
+ */
+public enum DebugCategory {
+	RECIPES, // Matching ingredients to recipes
+	BREWS, // Loading and saving Brew data on items
+	BARRELS, // Opening, aging and checking Barrels
+	CAULDRONS, // Cauldron Recipes and filling bottles from Cauldrons
+	DISTILLERS,
+	STORAGE, // Data files and database
+	TASKS; // Scheduled tasks and inventory tracking
+
+	/**
+	 * Get the Category by its name as used in the config, null if there is none
+	 */
+	@Nullable
+	public static DebugCategory get(String name) {
+		try {
+			return valueOf(name.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
@@ -48,8 +48,8 @@ public class Stats {
 			Metrics metrics = new Metrics(Brewery.getInstance(), 3494);
 			metrics.addCustomChart(new SingleLineChart("drunk_players", BPlayer::numDrunkPlayers));
 			metrics.addCustomChart(new SingleLineChart("brews_in_existence", () -> brewsCreated));
-			metrics.addCustomChart(new SingleLineChart("barrels_built", Barrel.barrels::size));
-			metrics.addCustomChart(new SingleLineChart("cauldrons_boiling", BCauldron.bcauldrons::size));
+			metrics.addCustomChart(new SingleLineChart("barrels_built", Barrel::getCachedCount));
+			metrics.addCustomChart(new SingleLineChart("cauldrons_boiling", BCauldron::getCachedCount));
 			metrics.addCustomChart(new AdvancedPie("brew_quality", () -> {
 				Map<String, Integer> map = new HashMap<>(8);
 				map.put("excellent", exc);
@@ -0,0 +1,161 @@
+package com.dre.brewery.filedata;
+
+import com.dre.brewery.lore.basE91;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The entry format of InventoryCodec, without a Server to create Items.
+ */
+class InventoryCodecTest {
+
+	private static String base91(byte[] bytes) {
+		return new String(basE91.encode(bytes), StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Meta fields as InventoryCodec.write() writes them, the same in both Versions
+	 */
+	private static byte[] meta(boolean full) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			if (full) {
+				out.writeShort(3);
+				out.write(new byte[] {86, 3, 7});
+				out.writeBoolean(true);
+				out.writeUTF("§6Fine Wheatbeer");
+				out.writeByte(2);
+				out.writeUTF("§7Barrel aged");
+				out.writeUTF("");
+				out.writeBoolean(true);
+				out.writeInt(1234);
+				out.writeByte(1);
+				out.writeUTF("HIDE_POTION_EFFECTS");
+				out.writeBoolean(true);
+				out.writeInt(0xC8FF2E);
+				out.writeByte(1);
+				out.writeUTF("SPEED");
+				out.writeInt(600);
+				out.writeByte(1);
+				out.writeByte(6);
+			} else {
+				out.writeShort(0);
+				out.writeBoolean(false);
+				out.writeByte(0);
+				out.writeBoolean(false);
+				out.writeByte(0);
+				out.writeBoolean(false);
+				out.writeByte(0);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] brewPayload(int amount, byte[] meta) {
+		byte[] payload = new byte[meta.length + 1];
+		payload[0] = (byte) amount;
+		System.arraycopy(meta, 0, payload, 1, meta.length);
+		return payload;
+	}
+
+	private static void assertEntry(InventoryCodec.Entry entry, int slot, byte type, byte[] payload) {
+		assertEquals(slot, entry.slot);
+		assertEquals(type, entry.type);
+		assertArrayEquals(payload, entry.payload);
+	}
+
+	@Test
+	void roundTrip() throws IOException {
+		List<InventoryCodec.Entry> entries = new ArrayList<>();
+		entries.add(new InventoryCodec.Entry(0, InventoryCodec.TYPE_BREW, brewPayload(1, meta(true))));
+		entries.add(new InventoryCodec.Entry(5, InventoryCodec.TYPE_ITEM, new byte[] {1, 2, 3, -1}));
+		entries.add(new InventoryCodec.Entry(26, InventoryCodec.TYPE_BREW, brewPayload(16, meta(false))));
+		entries.add(new InventoryCodec.Entry(255, InventoryCodec.TYPE_ITEM, new byte[0]));
+
+		List<InventoryCodec.Entry> read = InventoryCodec.readEntries(InventoryCodec.writeEntries(entries));
+		assertEquals(entries.size(), read.size());
+		for (int i = 0; i < entries.size(); i++) {
+			InventoryCodec.Entry entry = entries.get(i);
+			assertEntry(read.get(i), entry.slot, entry.type, entry.payload);
+		}
+
+		assertTrue(InventoryCodec.readEntries(InventoryCodec.writeEntries(new ArrayList<>())).isEmpty());
+	}
+
+	@Test
+	void readsVersion1() throws IOException {
+		byte[] full = meta(true);
+		byte[] empty = meta(false);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(1);
+			out.writeByte(3);
+			out.writeByte(2);
+			out.writeByte(1);
+			out.write(full);
+			out.writeByte(9);
+			out.writeByte(3);
+			out.write(empty);
+			out.writeByte(26);
+			out.writeByte(1);
+			out.write(full);
+		}
+
+		List<InventoryCodec.Entry> read = InventoryCodec.readEntries(base91(bytes.toByteArray()));
+		assertEquals(3, read.size());
+		assertEntry(read.get(0), 2, InventoryCodec.TYPE_BREW, brewPayload(1, full));
+		assertEntry(read.get(1), 9, InventoryCodec.TYPE_BREW, brewPayload(3, empty));
+		assertEntry(read.get(2), 26, InventoryCodec.TYPE_BREW, brewPayload(1, full));
+
+		// Written again as the current Version
+		List<InventoryCodec.Entry> again = InventoryCodec.readEntries(InventoryCodec.writeEntries(read));
+		assertEntry(again.get(1), 9, InventoryCodec.TYPE_BREW, brewPayload(3, empty));
+	}
+
+	@Test
+	void truncated() throws IOException {
+		List<InventoryCodec.Entry> entries = new ArrayList<>();
+		entries.add(new InventoryCodec.Entry(3, InventoryCodec.TYPE_BREW, brewPayload(1, meta(true))));
+		entries.add(new InventoryCodec.Entry(4, InventoryCodec.TYPE_ITEM, new byte[] {5, 6, 7, 8, 9}));
+		byte[] data = basE91.decode(InventoryCodec.writeEntries(entries));
+		for (int length = 0; length < data.length; length++) {
+			String cut = base91(Arrays.copyOf(data, length));
+			assertThrows(IOException.class, () -> InventoryCodec.readEntries(cut), "cut to " + length);
+		}
+
+		byte[] v1 = new byte[] {1, 1, 2, 1, 0, 3, 86};
+		assertThrows(IOException.class, () -> InventoryCodec.readEntries(base91(v1)));
+		byte[] v1Meta = meta(true);
+		for (int length = 0; length < v1Meta.length; length++) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			bytes.write(new byte[] {1, 1, 2, 1});
+			bytes.write(v1Meta, 0, length);
+			String cut = base91(bytes.toByteArray());
+			assertThrows(IOException.class, () -> InventoryCodec.readEntries(cut), "v1 cut to " + length);
+		}
+	}
+
+	@Test
+	void corrupt() {
+		// Negative length
+		byte[] negative = new byte[] {2, 0, 1, 0, 1, -1, -1, -1, -3};
+		IOException e = assertThrows(IOException.class, () -> InventoryCodec.readEntries(base91(negative)));
+		assertEquals("Invalid length: -3", e.getMessage());
+		// Length longer than the data
+		byte[] tooLong = new byte[] {2, 0, 1, 0, 1, 0, 0, 1, 0, 5, 5};
+		assertThrows(IOException.class, () -> InventoryCodec.readEntries(base91(tooLong)));
+		// Unknown Version
+		byte[] version = new byte[] {3, 0, 0};
+		e = assertThrows(IOException.class, () -> InventoryCodec.readEntries(base91(version)));
+		assertEquals("Unknown Version: 3", e.getMessage());
+	}
+}
@@ -0,0 +1,105 @@
+package com.dre.brewery.lore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading Brew data with the chain of Streams compared to BrewCodec and the bulk basE91.
+ * <p>Not run by the tests, start main() with the test classpath after mvn test-compile
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrewCodecBenchmark {
+
+	// Brew data is around 20-60 bytes, the larger ones are for Brews with many custom effects or names
+	@Param({"16", "48", "256"})
+	public int length;
+
+	private final List<Long> prevSeeds = Arrays.asList(BrewCodecTest.PREV_SEED, BrewCodecTest.OTHER_SEED);
+	private final List<Long> mainAsPrevSeed = Arrays.asList(BrewCodecTest.SEED, BrewCodecTest.PREV_SEED);
+	private byte[] payload;
+	private byte[] scrambled;
+	private byte[] lore;
+	private String loreString;
+
+	@Setup
+	public void setup() throws IOException {
+		payload = BrewCodecTest.payload(length);
+		scrambled = BrewCodecTest.streamEncode(BrewCodecTest.SEED, true, false, payload);
+		lore = BrewCodecTest.streamEncode(BrewCodecTest.SEED, true, true, payload);
+		loreString = new String(lore, StandardCharsets.US_ASCII);
+	}
+
+	@Benchmark
+	public byte[] encodeStreams() throws IOException {
+		return BrewCodecTest.streamEncode(BrewCodecTest.SEED, true, true, payload);
+	}
+
+	@Benchmark
+	public byte[] encodeCodec() throws IOException {
+		return basE91.encode(BrewCodec.encode(86, 1, BrewCodecTest.SEED, true, out -> BrewCodecTest.writePayload(out, payload)));
+	}
+
+	@Benchmark
+	public void decodeStreams(Blackhole bh) throws IOException, InvalidKeyException {
+		XORUnscrambleStream unscrambler = new XORUnscrambleStream(new Base91DecoderStream(new ByteArrayInputStream(lore)), BrewCodecTest.SEED, prevSeeds);
+		try (DataInputStream in = new DataInputStream(unscrambler)) {
+			in.readByte();
+			in.readByte();
+			unscrambler.start();
+			byte[] read = new byte[length];
+			in.readFully(read);
+			bh.consume(read);
+		}
+	}
+
+	@Benchmark
+	public void decodeCodec(Blackhole bh) throws IOException, InvalidKeyException {
+		byte[] data = basE91.decode(loreString);
+		byte[] read = new byte[length];
+		bh.consume(BrewCodec.decode(data, 2, BrewCodecTest.SEED, prevSeeds, in -> in.readFully(read)));
+		bh.consume(read);
+	}
+
+	@Benchmark
+	public void decodeCodecPrevSeed(Blackhole bh) throws IOException, InvalidKeyException {
+		byte[] read = new byte[length];
+		bh.consume(BrewCodec.decode(scrambled, 2, BrewCodecTest.OTHER_SEED, mainAsPrevSeed, in -> in.readFully(read)));
+		bh.consume(read);
+	}
+
+	@Benchmark
+	public byte[] base91Bulk() {
+		return basE91.decode(basE91.encode(scrambled));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(BrewCodecBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,211 @@
+package com.dre.brewery.lore;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BrewCodec has to write exactly what the chain of XORScrambleStream and Base91EncoderStream wrote,
+ * and read all of it back, or Brews already on Items could not be loaded anymore.
+ */
+class BrewCodecTest {
+
+	static final long SEED = 0x1F2E3D4C5B6A7988L;
+	static final long PREV_SEED = 0x0123456789ABCDEFL;
+	static final long OTHER_SEED = 0x7A6B5C4D3E2F1001L;
+	static final short ID = 0x3A5C;
+	private static final int[] LENGTHS = {0, 1, 2, 5, 31, 32, 33, 64, 100, 1000};
+
+	static byte[] payload(int length) {
+		byte[] payload = new byte[length];
+		new Random(length).nextBytes(payload);
+		return payload;
+	}
+
+	/**
+	 * Write like Brew.saveToStream, with single bytes and with arrays
+	 */
+	static void writePayload(DataOutputStream out, byte[] payload) throws IOException {
+		int half = payload.length / 2;
+		for (int i = 0; i < half; i++) {
+			out.writeByte(payload[i]);
+		}
+		out.write(payload, half, payload.length - half);
+	}
+
+	/**
+	 * The data as Brew.save wrote it with the Streams, before BrewCodec
+	 */
+	static byte[] streamEncode(long seed, boolean scramble, boolean base91, byte[] payload) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		XORScrambleStream scrambler = new XORScrambleStream(base91 ? new Base91EncoderStream(bytes) : bytes, seed);
+		try (DataOutputStream out = new DataOutputStream(scrambler)) {
+			out.writeByte(86);
+			out.writeByte(1);
+			if (scramble) {
+				scrambler.start();
+			} else {
+				scrambler.startUnscrambled();
+			}
+			writePayload(out, payload);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * The data as Brew.load read it with the Streams, before BrewCodec
+	 */
+	private static byte[] streamDecode(byte[] data, long seed, List<Long> prevSeeds, int length) throws IOException, InvalidKeyException {
+		XORUnscrambleStream unscrambler = new XORUnscrambleStream(new ByteArrayInputStream(data), seed, prevSeeds);
+		try (DataInputStream in = new DataInputStream(unscrambler)) {
+			assertEquals(86, in.readByte());
+			assertEquals(1, in.readByte());
+			unscrambler.start();
+			byte[] read = new byte[length];
+			in.readFully(read);
+			// No check for the end here, while unscrambling the Stream never returns -1 from read()
+			return read;
+		}
+	}
+
+	private static short idOf(byte[] data) {
+		return (short) ((data[2] & 0xFF) << 8 | (data[3] & 0xFF));
+	}
+
+	private static byte[] decode(byte[] data, long seed, List<Long> prevSeeds, Map<Integer, Long> fingerprints, int length,
+								 XORUnscrambleStream.SuccessType expected) throws IOException, InvalidKeyException {
+		byte[] read = new byte[length];
+		XORUnscrambleStream.SuccessType type = BrewCodec.decode(data, 2, seed, prevSeeds, fingerprints, in -> {
+			in.readFully(read);
+			assertEquals(-1, in.read(), "more data than written");
+		});
+		assertEquals(expected, type);
+		return read;
+	}
+
+	@Test
+	void encodeScrambledMatchesStreams() throws IOException {
+		for (int length : LENGTHS) {
+			byte[] payload = payload(length);
+			byte[] expected = streamEncode(SEED, true, false, payload);
+			byte[] actual = BrewCodec.encode(86, 1, SEED, idOf(expected), false, out -> writePayload(out, payload));
+			assertArrayEquals(expected, actual, "length " + length);
+		}
+	}
+
+	@Test
+	void encodeUnscrambledMatchesStreams() throws IOException {
+		for (int length : LENGTHS) {
+			byte[] payload = payload(length);
+			byte[] expected = streamEncode(SEED, false, false, payload);
+			byte[] actual = BrewCodec.encode(86, 1, SEED, false, out -> writePayload(out, payload));
+			assertArrayEquals(expected, actual, "length " + length);
+		}
+	}
+
+	@Test
+	void encodeForLoreMatchesStreams() throws IOException {
+		for (int length : LENGTHS) {
+			byte[] payload = payload(length);
+			byte[] expected = streamEncode(SEED, true, true, payload);
+			short id = idOf(basE91.decode(new String(expected, StandardCharsets.US_ASCII)));
+			byte[] actual = basE91.encode(BrewCodec.encode(86, 1, SEED, id, false, out -> writePayload(out, payload)));
+			assertArrayEquals(expected, actual, "length " + length);
+		}
+	}
+
+	@Test
+	void decodesStreamData() throws IOException, InvalidKeyException {
+		for (int length : LENGTHS) {
+			byte[] payload = payload(length);
+			byte[] scrambled = streamEncode(SEED, true, false, payload);
+			assertArrayEquals(payload, decode(scrambled, SEED, null, null, length, XORUnscrambleStream.SuccessType.MAIN_SEED));
+			byte[] unscrambled = streamEncode(SEED, false, false, payload);
+			assertArrayEquals(payload, decode(unscrambled, OTHER_SEED, null, null, length, XORUnscrambleStream.SuccessType.UNSCRAMBLED));
+		}
+	}
+
+	@Test
+	void streamsDecodeCodecData() throws IOException, InvalidKeyException {
+		for (int length : LENGTHS) {
+			byte[] payload = payload(length);
+			byte[] data = BrewCodec.encode(86, 1, SEED, true, out -> writePayload(out, payload));
+			assertArrayEquals(payload, streamDecode(data, SEED, null, length));
+		}
+	}
+
+	@Test
+	void parityAndPrevSeeds() throws IOException, InvalidKeyException {
+		byte[] payload = payload(40);
+		byte[] data = BrewCodec.encode(86, 1, PREV_SEED, ID, false, out -> writePayload(out, payload));
+		// The parity byte is the top byte of the seed, scrambled
+		assertEquals((byte) (PREV_SEED >> 48), (byte) (data[4] ^ new SeedInputStream(PREV_SEED ^ ID).read()));
+
+		assertArrayEquals(payload, decode(data, SEED, Arrays.asList(PREV_SEED, OTHER_SEED), null, 40, XORUnscrambleStream.SuccessType.PREV_SEED));
+		assertArrayEquals(payload, decode(data, PREV_SEED, Arrays.asList(SEED, OTHER_SEED), null, 40, XORUnscrambleStream.SuccessType.MAIN_SEED));
+		// The same Seeds are used by the Streams
+		assertArrayEquals(payload, streamDecode(data, SEED, Arrays.asList(PREV_SEED, OTHER_SEED), 40));
+
+		assertThrows(InvalidKeyException.class, () -> decode(data, SEED, Arrays.asList(OTHER_SEED), null, 40, null));
+		assertThrows(InvalidKeyException.class, () -> decode(data, SEED, null, null, 40, null));
+	}
+
+	@Test
+	void fingerprints() throws IOException, InvalidKeyException {
+		byte[] payload = payload(40);
+		byte[] data = BrewCodec.encode(86, 2, PREV_SEED, ID, true, out -> writePayload(out, payload));
+		assertEquals(BrewCodec.fingerprint(PREV_SEED), (data[4] & 0xFF) << 8 | (data[5] & 0xFF));
+
+		Map<Integer, Long> fingerprints = new HashMap<>();
+		fingerprints.put(BrewCodec.fingerprint(SEED), SEED);
+		fingerprints.put(BrewCodec.fingerprint(PREV_SEED), PREV_SEED);
+		// Found by the fingerprint alone, without trying the previous Seeds
+		assertArrayEquals(payload, decode(data, SEED, null, fingerprints, 40, XORUnscrambleStream.SuccessType.PREV_SEED));
+		assertArrayEquals(payload, decode(data, PREV_SEED, null, fingerprints, 40, XORUnscrambleStream.SuccessType.MAIN_SEED));
+		// Unknown fingerprint, falls back to trying all Seeds
+		assertArrayEquals(payload, decode(data, SEED, Arrays.asList(OTHER_SEED, PREV_SEED), new HashMap<>(), 40, XORUnscrambleStream.SuccessType.PREV_SEED));
+		assertThrows(InvalidKeyException.class, () -> decode(data, SEED, Arrays.asList(OTHER_SEED), new HashMap<>(), 40, null));
+
+		// Unscrambled data has no fingerprint
+		byte[] unscrambled = BrewCodec.encode(86, 2, SEED, false, true, out -> writePayload(out, payload));
+		assertEquals(4 + 40, unscrambled.length);
+		assertArrayEquals(payload, decode(unscrambled, SEED, null, fingerprints, 40, XORUnscrambleStream.SuccessType.UNSCRAMBLED));
+	}
+
+	@Test
+	void truncatedData() {
+		assertThrows(IOException.class, () -> decode(new byte[] {86, 1}, SEED, null, null, 0, null));
+		assertThrows(IOException.class, () -> decode(new byte[] {86, 1, 0x3A}, SEED, null, null, 0, null));
+		// Scrambled, but no parity byte
+		assertThrows(IOException.class, () -> decode(new byte[] {86, 1, 0x3A, 0x5C}, SEED, null, null, 0, null));
+		// Fingerprint cut off
+		assertThrows(IOException.class, () -> decode(new byte[] {86, 2, 0x3A, 0x5C, 1}, SEED, null, new HashMap<>(), 0, null));
+	}
+
+	@Test
+	void nestedUse() throws IOException, InvalidKeyException {
+		// Encoding inside of an encode must not overwrite the outer buffers
+		byte[] inner = payload(50);
+		byte[] outer = payload(70);
+		byte[][] innerData = new byte[1][];
+		byte[] data = BrewCodec.encode(86, 1, SEED, ID, false, out -> {
+			innerData[0] = BrewCodec.encode(86, 1, PREV_SEED, ID, false, in -> writePayload(in, inner));
+			writePayload(out, outer);
+		});
+		assertArrayEquals(outer, decode(data, SEED, null, null, 70, XORUnscrambleStream.SuccessType.MAIN_SEED));
+		assertArrayEquals(inner, decode(innerData[0], PREV_SEED, null, null, 50, XORUnscrambleStream.SuccessType.MAIN_SEED));
+	}
+}
@@ -0,0 +1,109 @@
+package com.dre.brewery.lore;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The bulk encode and decode have to give the same result as the basE91 instance methods and the Streams using them.
+ */
+class basE91Test {
+
+	private static byte[] instanceEncode(byte[] data) {
+		basE91 base91 = new basE91();
+		byte[] out = new byte[data.length * 2 + 4];
+		int n = base91.encode(data, data.length, out);
+		byte[] end = new byte[2];
+		int endLength = base91.encEnd(end);
+		System.arraycopy(end, 0, out, n, endLength);
+		return Arrays.copyOf(out, n + endLength);
+	}
+
+	private static byte[] streamEncode(byte[] data) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (Base91EncoderStream out = new Base91EncoderStream(bytes)) {
+			out.write(data);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] streamDecode(byte[] data) throws IOException {
+		try (InputStream in = new Base91DecoderStream(new ByteArrayInputStream(data))) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buf = new byte[64];
+			int n;
+			while ((n = in.read(buf, 0, buf.length)) != -1) {
+				bytes.write(buf, 0, n);
+			}
+			return bytes.toByteArray();
+		}
+	}
+
+	@Test
+	void bulkMatchesStreams() throws IOException {
+		Random random = new Random(91);
+		for (int length = 0; length < 300; length++) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			byte[] encoded = basE91.encode(data);
+			assertArrayEquals(instanceEncode(data), encoded, "encode length " + length);
+			assertArrayEquals(streamEncode(data), encoded, "stream encode length " + length);
+
+			assertArrayEquals(data, basE91.decode(encoded), "decode length " + length);
+			String chars = new String(encoded, StandardCharsets.US_ASCII);
+			assertArrayEquals(data, basE91.decode(chars), "decode chars length " + length);
+			assertArrayEquals(data, streamDecode(encoded), "stream decode length " + length);
+		}
+	}
+
+	@Test
+	void edgeValues() throws IOException {
+		// Values around 88 take the 14 bit path
+		for (int b = 0; b < 256; b++) {
+			for (int length = 1; length < 6; length++) {
+				byte[] data = new byte[length];
+				Arrays.fill(data, (byte) b);
+				byte[] encoded = basE91.encode(data);
+				assertArrayEquals(streamEncode(data), encoded);
+				assertArrayEquals(data, basE91.decode(encoded));
+			}
+		}
+	}
+
+	@Test
+	void decodeRange() {
+		byte[] data = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+		String encoded = new String(basE91.encode(data), StandardCharsets.US_ASCII);
+		String padded = "§xyz" + encoded + "§";
+		assertArrayEquals(data, basE91.decode(padded, 4, 4 + encoded.length()));
+	}
+
+	@Test
+	void skipsOtherChars() {
+		byte[] data = {-7, 0, 42, 100, -128, 127};
+		String encoded = new String(basE91.encode(data), StandardCharsets.US_ASCII);
+		StringBuilder withOther = new StringBuilder();
+		for (char c : encoded.toCharArray()) {
+			withOther.append(c).append(' ').append('§');
+		}
+		assertArrayEquals(data, basE91.decode(withOther));
+	}
+
+	@Test
+	void nestedScratch() {
+		// The result must not share the reused scratch buffer
+		byte[] first = basE91.encode(new byte[] {1, 2, 3});
+		byte[] copy = first.clone();
+		basE91.encode(new byte[] {9, 9, 9, 9, 9});
+		basE91.decode(new byte[] {65, 66, 67});
+		assertArrayEquals(copy, first);
+	}
+}
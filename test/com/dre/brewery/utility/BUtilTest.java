@@ -0,0 +1,86 @@
+package com.dre.brewery.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BUtilTest {
+
+	private static final int[] VALUES = {0, 1, 63, 64, 127, 128, 255, 300, 16383, 16384, 2097151, 2097152,
+		268435455, 268435456, Integer.MAX_VALUE, -1, -2, -64, -65, -128, -1000, Integer.MIN_VALUE};
+
+	private static byte[] varInt(int value, boolean signed) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			if (signed) {
+				BUtil.writeSignedVarInt(out, value);
+			} else {
+				BUtil.writeVarInt(out, value);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static DataInputStream in(byte[] bytes) {
+		return new DataInputStream(new ByteArrayInputStream(bytes));
+	}
+
+	@Test
+	void varIntRoundTrip() throws IOException {
+		for (int value : VALUES) {
+			byte[] bytes = varInt(value, false);
+			DataInputStream in = in(bytes);
+			assertEquals(value, BUtil.readVarInt(in));
+			assertEquals(-1, in.read(), "all bytes read for " + value);
+
+			in = in(varInt(value, true));
+			assertEquals(value, BUtil.readSignedVarInt(in));
+			assertEquals(-1, in.read(), "all bytes read for signed " + value);
+		}
+	}
+
+	@Test
+	void varIntLength() throws IOException {
+		assertArrayEquals(new byte[] {0}, varInt(0, false));
+		assertArrayEquals(new byte[] {127}, varInt(127, false));
+		assertArrayEquals(new byte[] {(byte) 0x80, 1}, varInt(128, false));
+		assertEquals(5, varInt(Integer.MAX_VALUE, false).length);
+		assertEquals(5, varInt(-1, false).length);
+	}
+
+	@Test
+	void signedVarInt() throws IOException {
+		// ZigZag: 0, -1, 1, -2, 2 ...
+		assertArrayEquals(new byte[] {0}, varInt(0, true));
+		assertArrayEquals(new byte[] {1}, varInt(-1, true));
+		assertArrayEquals(new byte[] {2}, varInt(1, true));
+		assertArrayEquals(new byte[] {3}, varInt(-2, true));
+		// Negative alcohol of a Brew stays small
+		assertEquals(1, varInt(-64, true).length);
+		assertEquals(2, varInt(-65, true).length);
+		assertEquals(5, varInt(Integer.MIN_VALUE, true).length);
+		assertEquals(5, varInt(Integer.MAX_VALUE, true).length);
+	}
+
+	@Test
+	void truncatedVarInt() {
+		assertThrows(EOFException.class, () -> BUtil.readVarInt(in(new byte[0])));
+		assertThrows(EOFException.class, () -> BUtil.readVarInt(in(new byte[] {(byte) 0x80})));
+		assertThrows(EOFException.class, () -> BUtil.readVarInt(in(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF})));
+		assertThrows(EOFException.class, () -> BUtil.readSignedVarInt(in(new byte[] {(byte) 0x81})));
+	}
+
+	@Test
+	void tooLongVarInt() {
+		byte[] bytes = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0};
+		IOException e = assertThrows(IOException.class, () -> BUtil.readVarInt(in(bytes)));
+		assertEquals("VarInt too long", e.getMessage());
+	}
+}